@@ -0,0 +1,105 @@
+package framework.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import framework.util.ObjectMapper;
+
+/**
+ * ObjectMapper.mapToObject : formulaire plat, puis formulaire profond et indexé
+ * (commande -> lignes[i] -> produit -> tags[j], attributs en Map).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BindingBenchmark {
+
+    public static class Adresse {
+        public String rue;
+        public String ville;
+        public int codePostal;
+    }
+
+    public static class Employe {
+        public String nom;
+        public int age;
+        public double salaire;
+        public boolean actif;
+        public Adresse adresse;
+    }
+
+    public static class Produit {
+        public String nom;
+        public List<String> tags;
+    }
+
+    public static class Ligne {
+        public Produit produit;
+        public int quantite;
+        public double prix;
+    }
+
+    public static class Commande {
+        public String reference;
+        public Employe client;
+        public List<Ligne> lignes;
+        public Map<String, Integer> attributs;
+    }
+
+    private final Map<String, String[]> flatForm = new LinkedHashMap<>();
+    private final Map<String, String[]> deepForm = new LinkedHashMap<>();
+
+    @Setup
+    public void setup() {
+        flatForm.put("e.nom", new String[] { "Rakoto" });
+        flatForm.put("e.age", new String[] { "34" });
+        flatForm.put("e.salaire", new String[] { "1250.50" });
+        flatForm.put("e.actif", new String[] { "on" });
+        flatForm.put("e.adresse.rue", new String[] { "Lot II A 12" });
+        flatForm.put("e.adresse.ville", new String[] { "Antananarivo" });
+        flatForm.put("e.adresse.codePostal", new String[] { "101" });
+        flatForm.put("autre", new String[] { "ignoré" });
+
+        deepForm.put("c.reference", new String[] { "CMD-2024-001" });
+        flatForm.forEach((key, values) -> {
+            if (key.startsWith("e.")) {
+                deepForm.put("c.client." + key.substring(2), values);
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            deepForm.put("c.lignes[" + i + "].produit.nom", new String[] { "Produit " + i });
+            deepForm.put("c.lignes[" + i + "].produit.tags[0]", new String[] { "neuf" });
+            deepForm.put("c.lignes[" + i + "].produit.tags[1]", new String[] { "promo" });
+            deepForm.put("c.lignes[" + i + "].quantite", new String[] { String.valueOf(i + 1) });
+            deepForm.put("c.lignes[" + i + "].prix", new String[] { "19.99" });
+        }
+        deepForm.put("c.attributs[priorite]", new String[] { "2" });
+        deepForm.put("c.attributs[remise]", new String[] { "10" });
+    }
+
+    @Benchmark
+    public Object flatForm() throws Exception {
+        return ObjectMapper.mapToObject(flatForm, Employe.class, "e");
+    }
+
+    @Benchmark
+    public Object deepForm() throws Exception {
+        return ObjectMapper.mapToObject(deepForm, Commande.class, "c");
+    }
+}
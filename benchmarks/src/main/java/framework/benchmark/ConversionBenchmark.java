@@ -0,0 +1,56 @@
+package framework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import framework.util.Convertor;
+
+/**
+ * Convertor.detectAndCastValue sur un mélange représentatif de valeurs de formulaire.
+ * Le temps affiché est celui d'une conversion (moyenne sur le mélange).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+    private static final String[] MIXED = {
+        "42", "-17", "3.14159", "1e-3", "true", "off",
+        "2024-03-15", "2024-03-15T10:30:00", "Antananarivo", "jean.rakoto@mail.mg",
+        "", "9223372036854775808", "12abc", "2024-13-45"
+    };
+
+    private static final String[] TEXT_ONLY = {
+        "Antananarivo", "Rakoto", "Lot II A 12", "description libre", "ABC-123", "note"
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(14)
+    public void mixed(Blackhole blackhole) {
+        for (String value : MIXED) {
+            blackhole.consume(Convertor.detectAndCastValue(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void textOnly(Blackhole blackhole) {
+        for (String value : TEXT_ONLY) {
+            blackhole.consume(Convertor.detectAndCastValue(value));
+        }
+    }
+}
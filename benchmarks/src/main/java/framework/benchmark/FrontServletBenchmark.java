@@ -0,0 +1,81 @@
+package framework.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import framework.servlet.FrontServlet;
+
+/**
+ * Requête complète à travers FrontServlet.service() : routage, liaison, invocation,
+ * puis sérialisation JSON (@JsonAnnot) ou réponse texte.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrontServletBenchmark {
+
+    private FrontServlet servlet;
+    private MockHttp jsonList;
+    private MockHttp jsonDetail;
+    private MockHttp text;
+
+    @Setup
+    public void setup() throws Exception {
+        servlet = new FrontServlet();
+        servlet.init(MockHttp.servletConfig());
+
+        jsonList = new MockHttp("GET", "/api/employes", Map.of());
+        jsonDetail = new MockHttp("GET", "/api/employes/17", Map.of());
+        text = new MockHttp("GET", "/bonjour", Map.of("nom", new String[] { "Rakoto" }));
+
+        // Vérification : les trois routes répondent 200 avec un corps
+        for (MockHttp exchange : new MockHttp[] { jsonList, jsonDetail, text }) {
+            exchange.reset();
+            servlet.service(exchange.request(), exchange.response());
+            if (exchange.status() != 200 || exchange.bodySize() == 0) {
+                throw new IllegalStateException("Réponse inattendue (" + exchange.status() + ") : " + exchange.body());
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Benchmark
+    public int jsonList() throws Exception {
+        return execute(jsonList);
+    }
+
+    @Benchmark
+    public int jsonDetail() throws Exception {
+        return execute(jsonDetail);
+    }
+
+    @Benchmark
+    public int textWithParameter() throws Exception {
+        return execute(text);
+    }
+
+    private int execute(MockHttp exchange) throws Exception {
+        exchange.reset();
+        servlet.service(exchange.request(), exchange.response());
+        return exchange.bodySize();
+    }
+}
@@ -0,0 +1,108 @@
+package framework.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import framework.annotation.ControllerAnnot;
+import framework.util.ControllerInvoker;
+
+/**
+ * Compare l'ancien chemin d'invocation (newInstance + Method.invoke), un MethodHandle étalé
+ * non constant (asSpreader, première version de ControllerInvoker) et ControllerInvoker
+ * (appel généré par LambdaMetafactory) en scope REQUEST et SINGLETON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvocationBenchmark {
+
+    public static class SampleController {
+        private final StringBuilder buffer = new StringBuilder();
+
+        public String detail(String name, Integer id) {
+            return name + id;
+        }
+
+        // Corps vide : seul le coût de l'appel reste mesuré
+        public Object first(String name, Integer id) {
+            return name;
+        }
+    }
+
+    private Class<?> clazz;
+    private Method method;
+    private ControllerInvoker requestInvoker;
+    private ControllerInvoker singletonInvoker;
+    private ControllerInvoker trivialInvoker;
+    private MethodHandle spreader;
+    private MethodHandle trivialSpreader;
+    private Object singleton;
+    private Object[] args;
+
+    @Setup
+    public void setup() throws Exception {
+        clazz = SampleController.class;
+        method = clazz.getMethod("detail", String.class, Integer.class);
+        requestInvoker = new ControllerInvoker(clazz, method, ControllerAnnot.Scope.REQUEST);
+        singletonInvoker = new ControllerInvoker(clazz, method, ControllerAnnot.Scope.SINGLETON);
+        args = new Object[] { "emp-", 42 };
+        spreader = spreader(method);
+        Method trivial = clazz.getMethod("first", String.class, Integer.class);
+        trivialInvoker = new ControllerInvoker(clazz, trivial, ControllerAnnot.Scope.SINGLETON);
+        trivialSpreader = spreader(trivial);
+        singleton = new SampleController();
+    }
+
+    private static MethodHandle spreader(Method method) throws IllegalAccessException {
+        return MethodHandles.lookup().unreflect(method).asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        Object instance = clazz.getDeclaredConstructor().newInstance();
+        return method.invoke(instance, args);
+    }
+
+    @Benchmark
+    public Object methodHandleSpreader() throws Throwable {
+        return (Object) spreader.invokeExact(singleton, args);
+    }
+
+    @Benchmark
+    public Object invokerRequestScope() throws Exception {
+        return requestInvoker.invoke(args);
+    }
+
+    @Benchmark
+    public Object invokerSingleton() throws Exception {
+        return singletonInvoker.invoke(args);
+    }
+
+    @Benchmark
+    public Object methodHandleSpreaderTrivial() throws Throwable {
+        return (Object) trivialSpreader.invokeExact(singleton, args);
+    }
+
+    @Benchmark
+    public Object invokerSingletonTrivial() throws Exception {
+        return trivialInvoker.invoke(args);
+    }
+}
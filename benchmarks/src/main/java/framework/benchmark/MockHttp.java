@@ -0,0 +1,199 @@
+package framework.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Requête / réponse factices (java.lang.reflect.Proxy) pour piloter FrontServlet sans conteneur.
+ * Un échange est créé une fois dans @Setup puis remis à zéro à chaque invocation :
+ * les allocations mesurées sont celles du framework.
+ */
+public class MockHttp {
+
+    private final String method;
+    private final String uri;
+    private final Map<String, String[]> parameters;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+    private final ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private String contentType;
+    private int status = HttpServletResponse.SC_OK;
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+
+    public MockHttp(String method, String uri, Map<String, String[]> parameters) {
+        this.method = method;
+        this.uri = uri;
+        this.parameters = parameters;
+        this.outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                body.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+        this.request = createRequest();
+        this.response = createResponse();
+    }
+
+    public HttpServletRequest request() {
+        return request;
+    }
+
+    public HttpServletResponse response() {
+        return response;
+    }
+
+    public void reset() {
+        attributes.clear();
+        headers.clear();
+        if (writer != null) {
+            writer.flush();
+        }
+        body.reset();
+        contentType = null;
+        status = HttpServletResponse.SC_OK;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public int bodySize() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.size();
+    }
+
+    public String body() {
+        bodySize();
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private HttpServletRequest createRequest() {
+        return (HttpServletRequest) Proxy.newProxyInstance(MockHttp.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getMethod": return method;
+                        case "getRequestURI": return uri;
+                        case "getContextPath":
+                        case "getServletPath": return "";
+                        case "getProtocol": return "HTTP/1.1";
+                        case "getParameterMap": return parameters;
+                        case "getParameterNames": return Collections.enumeration(parameters.keySet());
+                        case "getParameterValues": return parameters.get((String) args[0]);
+                        case "getParameter": {
+                            String[] values = parameters.get((String) args[0]);
+                            return values == null ? null : values[0];
+                        }
+                        case "getAttribute": return attributes.get((String) args[0]);
+                        case "setAttribute": attributes.put((String) args[0], args[1]); return null;
+                        case "removeAttribute": attributes.remove((String) args[0]); return null;
+                        case "getDispatcherType": return DispatcherType.REQUEST;
+                        case "getCharacterEncoding": return "UTF-8";
+                        case "getHeaderNames": return Collections.emptyEnumeration();
+                        case "getHeaders": return Collections.emptyEnumeration();
+                        case "getContentLengthLong": return -1L;
+                        case "getContentLength":
+                        case "getIntHeader": return -1;
+                        case "getDateHeader": return -1L;
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: return defaultValue(m.getReturnType());
+                    }
+                });
+    }
+
+    private HttpServletResponse createResponse() {
+        return (HttpServletResponse) Proxy.newProxyInstance(MockHttp.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getOutputStream": return outputStream;
+                        case "getWriter":
+                            if (writer == null) {
+                                writer = new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+                            }
+                            return writer;
+                        case "setStatus": status = (Integer) args[0]; return null;
+                        case "sendError": status = (Integer) args[0]; return null;
+                        case "getStatus": return status;
+                        case "setContentType": contentType = (String) args[0]; return null;
+                        case "getContentType": return contentType;
+                        case "getCharacterEncoding": return "UTF-8";
+                        case "setHeader":
+                        case "addHeader": headers.put((String) args[0], (String) args[1]); return null;
+                        case "getHeader": return headers.get((String) args[0]);
+                        case "containsHeader": return headers.containsKey((String) args[0]);
+                        case "getHeaderNames": return headers.keySet();
+                        case "reset":
+                        case "resetBuffer": body.reset(); return null;
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: return defaultValue(m.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * Configuration de servlet minimale pour FrontServlet.init(ServletConfig)
+     */
+    public static ServletConfig servletConfig() {
+        ServletContext context = (ServletContext) Proxy.newProxyInstance(MockHttp.class.getClassLoader(),
+                new Class<?>[] { ServletContext.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getInitParameterNames":
+                        case "getAttributeNames": return Collections.emptyEnumeration();
+                        case "getContextPath": return "";
+                        default: return defaultValue(m.getReturnType());
+                    }
+                });
+        return (ServletConfig) Proxy.newProxyInstance(MockHttp.class.getClassLoader(),
+                new Class<?>[] { ServletConfig.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getServletName": return "FrontServlet";
+                        case "getServletContext": return context;
+                        case "getInitParameterNames": return Collections.emptyEnumeration();
+                        default: return defaultValue(m.getReturnType());
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package framework.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import framework.models.Route;
+import framework.util.Router;
+
+/**
+ * Résolution d'une route (FrontServlet.findRoute -> Router.find) parmi N routes :
+ * chemin statique, chemin avec variables, et chemin inconnu.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutingBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int routes;
+
+    private final Router router = new Router();
+    private final HashMap<String, String> pathVariables = new HashMap<>();
+    private String staticPath;
+    private String variablePath;
+    private String missingPath;
+
+    @Setup
+    public void setup() throws Exception {
+        Method method = Object.class.getMethod("toString");
+        for (int i = 0; i < routes; i++) {
+            router.add(new Route(Object.class, method, "GET", "/module" + i + "/liste"));
+            router.add(new Route(Object.class, method, "GET", "/module" + i + "/{id}"));
+            router.add(new Route(Object.class, method, "POST", "/module" + i + "/{id}/lignes/{ligne}"));
+        }
+        int last = routes - 1;
+        staticPath = "/module" + last + "/liste";
+        variablePath = "/module" + (routes / 2) + "/42/lignes/7";
+        missingPath = "/inconnu/" + last + "/liste";
+    }
+
+    @Benchmark
+    public Route staticRoute() {
+        pathVariables.clear();
+        return router.find(staticPath, "GET", pathVariables);
+    }
+
+    @Benchmark
+    public Route variableRoute() {
+        pathVariables.clear();
+        return router.find(variablePath, "POST", pathVariables);
+    }
+
+    @Benchmark
+    public Route missingRoute() {
+        pathVariables.clear();
+        return router.find(missingPath, "GET", pathVariables);
+    }
+}
@@ -0,0 +1,63 @@
+package framework.benchmark.app;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import framework.annotation.ControllerAnnot;
+import framework.annotation.JsonAnnot;
+import framework.annotation.RequestParam;
+import framework.annotation.UrlAnnot;
+
+/**
+ * Contrôleur utilisé par FrontServletBenchmark (scanné via PACKAGE_RACINE du app.properties du module)
+ */
+@ControllerAnnot(scope = ControllerAnnot.Scope.SINGLETON)
+public class EmployeController {
+
+    public static class Employe {
+        private final int id;
+        private final String nom;
+        private final String poste;
+        private final double salaire;
+        private final boolean actif;
+
+        public Employe(int id, String nom, String poste, double salaire, boolean actif) {
+            this.id = id;
+            this.nom = nom;
+            this.poste = poste;
+            this.salaire = salaire;
+            this.actif = actif;
+        }
+
+        public int getId() { return id; }
+        public String getNom() { return nom; }
+        public String getPoste() { return poste; }
+        public double getSalaire() { return salaire; }
+        public boolean isActif() { return actif; }
+    }
+
+    private final List<Employe> employes = new ArrayList<>();
+
+    public EmployeController() {
+        for (int i = 0; i < 50; i++) {
+            employes.add(new Employe(i, "Employe " + i, i % 3 == 0 ? "Développeur" : "Analyste", 1000 + i * 25.5, i % 7 != 0));
+        }
+    }
+
+    @UrlAnnot("/api/employes")
+    @JsonAnnot
+    public List<Employe> liste() {
+        return employes;
+    }
+
+    @UrlAnnot("/api/employes/{id}")
+    @JsonAnnot
+    public Employe detail(@RequestParam("id") int id) {
+        return employes.get(id);
+    }
+
+    @UrlAnnot("/bonjour")
+    public String bonjour(@RequestParam("nom") String nom) {
+        return "Bonjour " + nom;
+    }
+}
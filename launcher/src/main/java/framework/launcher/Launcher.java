@@ -0,0 +1,107 @@
+package framework.launcher;
+
+import javax.servlet.annotation.MultipartConfig;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import framework.servlet.FrontServlet;
+import framework.util.ProjectConfig;
+import framework.util.Uploads;
+
+/**
+ * Démarre FrontServlet dans un Jetty embarqué, avec le app.properties de l'application.
+ * Paramètres :
+ *   SERVER_HOST              interface d'écoute (défaut : toutes)
+ *   SERVER_PORT              port HTTP (défaut : 8080)
+ *   SERVER_CONTEXT_PATH      chemin de contexte (défaut : /)
+ *   SERVER_ACCEPTORS         threads d'acceptation (défaut : -1, choix de Jetty)
+ *   SERVER_SELECTORS         threads de sélection NIO (défaut : -1, choix de Jetty)
+ *   SERVER_WORKERS           nombre maximal de threads de traitement (défaut : 200)
+ *   SERVER_MIN_WORKERS       threads de traitement gardés en vie (défaut : 8)
+ *   SERVER_VIRTUAL_THREADS   true : requêtes traitées sur des threads virtuels (Java 21+)
+ *   SERVER_IDLE_TIMEOUT_MS   inactivité maximale d'une connexion (défaut : 30000)
+ *
+ * FrontServlet est initialisé au démarrage du serveur, pas à la première requête.
+ * Les vues JSP ne sont pas prises en charge (pas de moteur JSP embarqué) : routes JSON et texte.
+ */
+public class Launcher {
+
+    private final ProjectConfig config;
+    private Server server;
+
+    public Launcher(ProjectConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long start = System.nanoTime();
+        Launcher launcher = new Launcher(new ProjectConfig());
+        launcher.start();
+        System.out.println("Serveur démarré sur le port " + launcher.getPort()
+                + " en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        launcher.join();
+    }
+
+    public void start() throws Exception {
+        QueuedThreadPool threadPool = new QueuedThreadPool(
+                config.getInt("SERVER_WORKERS", 200), config.getInt("SERVER_MIN_WORKERS", 8));
+        threadPool.setName("framework-http");
+        if (config.getBoolean("SERVER_VIRTUAL_THREADS", false)) {
+            if (VirtualThreads.areSupported()) {
+                threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+            } else {
+                System.err.println("SERVER_VIRTUAL_THREADS ignoré : threads virtuels indisponibles (Java 21+ requis)");
+            }
+        }
+
+        server = new Server(threadPool);
+        ServerConnector connector = new ServerConnector(server,
+                config.getInt("SERVER_ACCEPTORS", -1), config.getInt("SERVER_SELECTORS", -1));
+        connector.setHost(blankToNull(config.getProperty("SERVER_HOST")));
+        connector.setPort(config.getInt("SERVER_PORT", 8080));
+        connector.setIdleTimeout(config.getLong("SERVER_IDLE_TIMEOUT_MS", 30000));
+        server.addConnector(connector);
+
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath(config.getProperty("SERVER_CONTEXT_PATH", "/").trim());
+
+        // Même déclaration que @WebServlet / @MultipartConfig, lues sur la classe ; les limites
+        // d'envoi de app.properties vont au conteneur, qui les applique pendant la lecture du corps
+        ServletHolder holder = new ServletHolder("FrontServlet", FrontServlet.class);
+        holder.setAsyncSupported(true);
+        holder.setInitOrder(0);
+        MultipartConfig multipart = FrontServlet.class.getAnnotation(MultipartConfig.class);
+        if (multipart != null) {
+            holder.getRegistration().setMultipartConfig(Uploads.multipartConfig(config, multipart));
+        }
+        context.addServlet(holder, "/");
+
+        server.setHandler(context);
+        server.setStopAtShutdown(true);
+        server.start();
+    }
+
+    /**
+     * Port effectivement ouvert (utile avec SERVER_PORT=0)
+     */
+    public int getPort() {
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    public void join() throws InterruptedException {
+        server.join();
+    }
+
+    public void stop() throws Exception {
+        server.stop();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -5,9 +5,13 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.annotation.ElementType;
 
+/**
+ * Restreint la route aux utilisateurs ayant au moins un des rôles listés
+ * (ou un rôle qui les inclut, cf. AUTH_HIERARCHY). Liste vide : tout utilisateur authentifié.
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface AuthAnnot
 {
-    String value() default "user";
-}
\ No newline at end of file
+    String[] value() default "user";
+}
@@ -0,0 +1,27 @@
+package framework.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.annotation.ElementType;
+
+/**
+ * Borne le nombre d'exécutions simultanées d'une route : une route coûteuse
+ * ne peut plus occuper tous les threads du conteneur. Au-delà : 503 avec Retry-After.
+ * Surchargeable dans app.properties : BULKHEAD.<url> et BULKHEAD_TARGET_MS.<url>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Bulkhead
+{
+    /**
+     * Exécutions simultanées au plus
+     */
+    int value();
+
+    /**
+     * Latence visée en millisecondes ; si > 0, la limite s'adapte entre 1 et value() :
+     * elle baisse quand les requêtes dépassent la cible et remonte quand elles la tiennent
+     */
+    long targetLatencyMs() default 0;
+}
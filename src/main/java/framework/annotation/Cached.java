@@ -0,0 +1,32 @@
+package framework.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.annotation.ElementType;
+
+/**
+ * Met en cache la réponse complète (octets sérialisés) d'une route GET.
+ * La clé est formée de la route, des variables de chemin et des paramètres retenus.
+ * La réponse ne doit dépendre ni de la session ni des en-têtes de la requête.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached
+{
+    /**
+     * Durée de vie d'une entrée, en secondes
+     */
+    long ttl() default 60;
+
+    /**
+     * Nombre maximal d'entrées pour cette route (les moins récemment utilisées sont évincées,
+     * approximativement). Les octets sont bornés pour l'ensemble des routes : RESPONSE_CACHE_MAX_BYTES.
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * Paramètres de requête qui entrent dans la clé ; vide = tous les paramètres
+     */
+    String[] params() default {};
+}
@@ -9,5 +9,15 @@ import java.lang.annotation.ElementType;
 @Target(ElementType.TYPE)
 public @interface ControllerAnnot
 {
-    
+    /**
+     * REQUEST : une instance par requête (comportement historique).
+     * SINGLETON : une seule instance créée dans init(), le contrôleur doit être sans état.
+     */
+    Scope scope() default Scope.REQUEST;
+
+    enum Scope
+    {
+        SINGLETON,
+        REQUEST
+    }
 }
\ No newline at end of file
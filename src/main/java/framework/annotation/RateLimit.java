@@ -0,0 +1,26 @@
+package framework.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.annotation.ElementType;
+
+/**
+ * Limite le débit d'une route (seau à jetons, toutes requêtes confondues).
+ * Au-delà : 429 avec Retry-After.
+ * Surchargeable dans app.properties : RATE_LIMIT.<url> et RATE_LIMIT_BURST.<url>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimit
+{
+    /**
+     * Requêtes admises par seconde, en régime établi
+     */
+    double value();
+
+    /**
+     * Rafale tolérée au-delà du débit ; 0 = une seconde de débit
+     */
+    int burst() default 0;
+}
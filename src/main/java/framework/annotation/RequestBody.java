@@ -0,0 +1,25 @@
+package framework.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.annotation.ElementType;
+
+/**
+ * Paramètre lié au corps JSON de la requête (Content-Type application/json ou *+json).
+ * Types Iterator<T> / MappingIterator<T> / Stream<T> : lecture élément par élément d'un tableau,
+ * sans le charger en entier (à consommer pendant l'appel du contrôleur).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface RequestBody
+{
+    // Corps absent : 400 si requis, null sinon
+    boolean required() default true;
+
+    // Valeur par défaut de maxSize() : reprend REQUEST_BODY_MAX_SIZE
+    long GLOBAL_MAX_SIZE = Long.MIN_VALUE;
+
+    // Taille maximale en octets pour ce paramètre ; -1 = illimitée, comme REQUEST_BODY_MAX_SIZE
+    long maxSize() default GLOBAL_MAX_SIZE;
+}
@@ -6,6 +6,8 @@ public class ModelView
 {
     private String view;
     private HashMap<String, Object> attributes = new HashMap<>();
+    private String cacheKey;
+    private long cacheTtl;
 
     public ModelView(String view)
     {
@@ -36,4 +38,25 @@ public class ModelView
     {
         return this.attributes.get(key);
     }
+
+    /**
+     * Met en cache le rendu de la vue sous cette clé, pendant ttlSeconds secondes.
+     * La clé doit couvrir tout ce qui fait varier la page (attributs, utilisateur...) :
+     * tant qu'elle est valide, la vue n'est plus exécutée.
+     */
+    public void enableCache(String key, long ttlSeconds)
+    {
+        this.cacheKey = key;
+        this.cacheTtl = ttlSeconds;
+    }
+
+    public String getCacheKey()
+    {
+        return cacheKey;
+    }
+
+    public long getCacheTtl()
+    {
+        return cacheTtl;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package framework.models;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.servlet.http.Part;
+
+/**
+ * Fichier envoyé en multipart, lié à un paramètre de contrôleur sans être chargé en mémoire.
+ * Le contenu reste là où le conteneur l'a placé (mémoire ou fichier temporaire selon
+ * fileSizeThreshold de la configuration multipart) jusqu'à lecture ou transferTo().
+ */
+public class UploadedFile
+{
+    private final Part part;
+
+    public UploadedFile(Part part)
+    {
+        this.part = part;
+    }
+
+    /** Nom du champ du formulaire */
+    public String getName()
+    {
+        return part.getName();
+    }
+
+    /** Nom du fichier côté client */
+    public String getFileName()
+    {
+        return part.getSubmittedFileName();
+    }
+
+    public String getContentType()
+    {
+        return part.getContentType();
+    }
+
+    public long getSize()
+    {
+        return part.getSize();
+    }
+
+    public InputStream getInputStream() throws IOException
+    {
+        return part.getInputStream();
+    }
+
+    /**
+     * Charge tout le fichier en mémoire : à réserver aux petits fichiers
+     */
+    public byte[] getBytes() throws IOException
+    {
+        try (InputStream is = part.getInputStream()) {
+            return is.readAllBytes();
+        }
+    }
+
+    /**
+     * Enregistre le fichier à l'emplacement donné. Part.write() permet au conteneur
+     * de simplement déplacer son fichier temporaire ; à défaut, copie par FileChannel.
+     * Le fichier ne doit plus être relu après cet appel.
+     */
+    public void transferTo(Path target) throws IOException
+    {
+        Path absolute = target.toAbsolutePath();
+        try {
+            part.write(absolute.toString());
+            return;
+        } catch (IOException e) {
+            // Certains conteneurs refusent les chemins absolus : copie manuelle
+        }
+
+        try (ReadableByteChannel source = Channels.newChannel(part.getInputStream());
+             FileChannel destination = FileChannel.open(absolute,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = part.getSize();
+            long position = 0;
+            while (position < size) {
+                long transferred = destination.transferFrom(source, position, size - position);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Supprime le fichier temporaire sans attendre la fin de la requête
+     */
+    public void delete() throws IOException
+    {
+        part.delete();
+    }
+}
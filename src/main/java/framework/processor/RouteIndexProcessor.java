@@ -0,0 +1,176 @@
+package framework.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import framework.annotation.ControllerAnnot;
+import framework.annotation.MethodMapping;
+import framework.annotation.UrlAnnot;
+import framework.util.RouteIndex;
+
+/**
+ * Génère à la compilation l'index des routes (META-INF/framework/routes.idx)
+ * lu par FrontServlet.init() à la place du scan Reflections.
+ *
+ * Le processeur est déclaré dans META-INF/services du jar du framework : il s'exécute
+ * automatiquement chez les applications qui compilent avec le framework dans le classpath.
+ * À partir du JDK 23, javac n'exécute plus les processeurs implicitement :
+ * ajouter -proc:full ou déclarer le jar dans annotationProcessorPaths.
+ */
+@SupportedAnnotationTypes("framework.annotation.ControllerAnnot")
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    // classe -> lignes de l'index, triées pour un fichier reproductible
+    private final TreeMap<String, Set<String>> entries = new TreeMap<>();
+    private final Set<String> compiledTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element root : roundEnv.getRootElements()) {
+            collectTypeNames(root);
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(ControllerAnnot.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                indexController((TypeElement) element);
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void indexController(TypeElement controller) {
+        String className = processingEnv.getElementUtils().getBinaryName(controller).toString();
+        Set<String> lines = new TreeSet<>();
+
+        // Même périmètre que Class.getMethods() : méthodes publiques, héritées comprises
+        for (Element member : processingEnv.getElementUtils().getAllMembers(controller)) {
+            if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            UrlAnnot urlAnnot = member.getAnnotation(UrlAnnot.class);
+            if (urlAnnot == null) {
+                continue;
+            }
+
+            ExecutableElement method = (ExecutableElement) member;
+            MethodMapping mapping = method.getAnnotation(MethodMapping.class);
+            String httpMethod = mapping != null ? mapping.value() : "GET";
+
+            List<String> parameterTypes = new ArrayList<>();
+            for (VariableElement parameter : method.getParameters()) {
+                parameterTypes.add(typeName(parameter.asType()));
+            }
+
+            lines.add(RouteIndex.format(httpMethod, urlAnnot.value(), className,
+                    method.getSimpleName().toString(), parameterTypes));
+        }
+
+        entries.put(className, lines);
+    }
+
+    /**
+     * Nom du type effacé, au format de Class.getTypeName() (ex: "byte[]", "a.B$C")
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) erased).getComponentType()) + "[]";
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+                return processingEnv.getElementUtils().getBinaryName(element).toString();
+            default:
+                return erased.toString();
+        }
+    }
+
+    private void collectTypeNames(Element element) {
+        if (element instanceof TypeElement) {
+            compiledTypes.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+            for (Element enclosed : element.getEnclosedElements()) {
+                collectTypeNames(enclosed);
+            }
+        }
+    }
+
+    private void writeIndex() {
+        TreeMap<String, Set<String>> merged = new TreeMap<>();
+        readPreviousIndex(merged);
+        merged.putAll(entries);
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Généré par " + getClass().getName() + "\n");
+                for (Set<String> lines : merged.values()) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Index des routes non généré : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compilation incrémentale : on conserve les entrées des classes qui n'ont pas été
+     * recompilées et qui existent toujours
+     */
+    private void readPreviousIndex(TreeMap<String, Set<String>> merged) {
+        try {
+            FileObject previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(previous.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    RouteIndex.Entry entry = RouteIndex.parse(line);
+                    if (entry == null || compiledTypes.contains(entry.getClassName())
+                            || processingEnv.getElementUtils().getTypeElement(entry.getClassName().replace('$', '.')) == null) {
+                        continue;
+                    }
+                    merged.computeIfAbsent(entry.getClassName(), k -> new TreeSet<>()).add(line);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Pas d'index précédent
+        }
+    }
+}
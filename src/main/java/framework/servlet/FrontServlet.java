@@ -1,21 +1,28 @@
 package framework.servlet;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.PrintWriter;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.MultipartConfig;
@@ -23,52 +30,119 @@ import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.Part;
 
 import framework.annotation.ControllerAnnot;
 import framework.annotation.MethodMapping;
-import framework.annotation.RequestParam;
 import framework.annotation.UrlAnnot;
 import framework.annotation.JsonAnnot;
 import framework.annotation.AuthAnnot;
+import framework.annotation.Cached;
 import framework.models.ModelView;
 import framework.models.Route;
+import framework.util.Admission;
+import framework.util.AsyncSupport;
+import framework.util.Batch;
+import framework.util.Authorizer;
+import framework.util.CapturingResponseWrapper;
+import framework.util.CompressingResponseWrapper;
+import framework.util.Compression;
 import framework.util.ProjectConfig;
 import framework.util.ProjectScanner;
-import framework.util.Convertor;
-import framework.util.ObjectMapper;
+import framework.util.ResponseCache;
+import framework.util.ControllerInvoker;
+import framework.util.Converters;
 import framework.util.FrameworkSession;
-
-@WebServlet("/")
+import framework.util.HttpMethods;
+import framework.util.HttpStatusException;
+import framework.util.JacksonCodec;
+import framework.util.JsonCodec;
+import framework.util.JsonEnvelopeWriter;
+import framework.util.Metrics;
+import framework.util.NoBodyResponseWrapper;
+import framework.util.ParameterBinder;
+import framework.util.ParameterResolver;
+import framework.util.RouteIndex;
+import framework.util.SessionStore;
+import framework.util.StaticResources;
+import framework.util.Router;
+
+@WebServlet(urlPatterns = "/", asyncSupported = true)
 @MultipartConfig
 public class FrontServlet extends HttpServlet {
     
-    private List<Route> routes = new ArrayList<>();
+    private final Router router = new Router();
+    private JsonCodec jsonCodec;
+    private JsonEnvelopeWriter jsonWriter;
+    private AsyncSupport asyncSupport;
+    private ResponseCache viewCache;
+    // Octets de toutes les routes @Cached réunies (RESPONSE_CACHE_MAX_BYTES), pas de chacune
+    private ResponseCache.Budget responseBudget;
+    private long cacheWaitMillis;
+    private SessionStore sessionStore;
+    private Metrics metrics;
+    private String metricsUrl;
+    private Compression compression;
+    private StaticResources staticResources;
+    private Batch batch;
     ProjectConfig config = new ProjectConfig();
     
     @Override
     public void init() throws ServletException {
         super.init();
         try {
+            jsonCodec = JacksonCodec.fromConfig(config);
+            jsonWriter = new JsonEnvelopeWriter(jsonCodec);
+            Converters.registerFromConfig(config);
+            asyncSupport = new AsyncSupport(config);
+            sessionStore = SessionStore.fromConfig(config);
+            Authorizer.configure(config);
+            if (config.getBoolean("CONFIG_HOT_RELOAD", false)) {
+                config.startWatching();
+            }
+            metricsUrl = config.getProperty("METRICS_URL");
+            if (metricsUrl != null && !metricsUrl.isBlank()) {
+                metricsUrl = metricsUrl.trim();
+                metrics = new Metrics();
+            }
+            compression = Compression.fromConfig(config);
+            staticResources = StaticResources.fromConfig(config, getServletContext());
+            batch = Batch.fromConfig(config, jsonCodec, sessionStore, getServletContext());
+            viewCache = new ResponseCache(
+                    config.getInt("VIEW_CACHE_MAX_ENTRIES", 500),
+                    config.getLong("VIEW_CACHE_MAX_BYTES", 32L * 1024 * 1024));
+            responseBudget = new ResponseCache.Budget(config.getLong("RESPONSE_CACHE_MAX_BYTES", 16L * 1024 * 1024));
+            cacheWaitMillis = config.getLong("CACHE_WAIT_MS", 5000);
+            ParameterBinder binder = new ParameterBinder(config, asyncSupport.getExecutor(), sessionStore, jsonCodec);
+
             String basePackage = config.getProperty("PACKAGE_RACINE");
-            
-            ProjectScanner scanner = new ProjectScanner(basePackage);
-            Set<Class<?>> projectClasses = scanner.getAllProjectClasses();
-
-            for (Class<?> clazz : projectClasses) {
-                if (clazz.isAnnotationPresent(ControllerAnnot.class)) {
-                    for (Method method : clazz.getMethods()) {
-                        if (method.isAnnotationPresent(UrlAnnot.class)) {
-                            UrlAnnot urlAnnot = method.getAnnotation(UrlAnnot.class);
-                            String url = urlAnnot.value();
-                            
-                            String httpMethod = "GET"; 
-                            if (method.isAnnotationPresent(MethodMapping.class)) {
-                                httpMethod = method.getAnnotation(MethodMapping.class).value();
-                            }
 
-                            Route route = new Route(clazz, method, httpMethod, url);
-                            routes.add(route);
+            // Index généré à la compilation (RouteIndexProcessor), sinon scan du classpath
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            List<Method> indexed = null;
+            if (config.getBoolean("ROUTE_INDEX", true)) {
+                List<RouteIndex.Entry> index = RouteIndex.load(loader, basePackage);
+                if (index != null) {
+                    indexed = resolveIndex(index, loader, config);
+                }
+            }
+
+            if (indexed != null) {
+                for (Method method : indexed) {
+                    Class<?> clazz = method.getDeclaringClass();
+                    ControllerAnnot.Scope scope = clazz.getAnnotation(ControllerAnnot.class).scope();
+                    registerRoute(clazz, method, httpMethod(method), method.getAnnotation(UrlAnnot.class).value(), scope, binder);
+                }
+            } else {
+                ProjectScanner scanner = new ProjectScanner(basePackage);
+                Set<Class<?>> projectClasses = scanner.getAllProjectClasses();
+
+                for (Class<?> clazz : projectClasses) {
+                    if (clazz.isAnnotationPresent(ControllerAnnot.class)) {
+                        ControllerAnnot.Scope scope = clazz.getAnnotation(ControllerAnnot.class).scope();
+                        for (Method method : clazz.getMethods()) {
+                            if (method.isAnnotationPresent(UrlAnnot.class)) {
+                                registerRoute(clazz, method, httpMethod(method), method.getAnnotation(UrlAnnot.class).value(), scope, binder);
+                            }
                         }
                     }
                 }
@@ -78,327 +152,832 @@ public class FrontServlet extends HttpServlet {
         }
     }
 
-    @Override
-    protected void doGet(HttpServletRequest req, HttpServletResponse rep) throws ServletException, IOException {
-        processRequest(req, rep);
+    /**
+     * Méthodes désignées par l'index, vérifiées contre les classes chargées : contrôleur annoté,
+     * méthode présente avec la même URL et le même verbe, et aucune route d'un contrôleur indexé
+     * absente de l'index. Un index périmé (compilation partielle, classe supprimée ou modifiée)
+     * retourne null et le scan du classpath prend le relais, ou l'initialisation échoue
+     * si ROUTE_INDEX_FALLBACK=false.
+     */
+    private List<Method> resolveIndex(List<RouteIndex.Entry> index, ClassLoader loader, ProjectConfig config) throws ServletException {
+        log("Index des routes : " + index.size() + " route(s) depuis " + RouteIndex.sources(index));
+        List<Method> methods = new ArrayList<>();
+        Map<Class<?>, Set<Method>> byClass = new HashMap<>();
+        String problem = null;
+        for (RouteIndex.Entry entry : index) {
+            try {
+                Class<?> clazz = Class.forName(entry.getClassName(), false, loader);
+                if (!clazz.isAnnotationPresent(ControllerAnnot.class)) {
+                    problem = entry + " : classe sans @ControllerAnnot";
+                    break;
+                }
+                Method method = entry.resolve(clazz);
+                UrlAnnot urlAnnot = method.getAnnotation(UrlAnnot.class);
+                if (urlAnnot == null || !urlAnnot.value().equals(entry.getUrl()) || !httpMethod(method).equalsIgnoreCase(entry.getHttpMethod())) {
+                    problem = entry + " : annotations différentes dans la classe";
+                    break;
+                }
+                if (byClass.computeIfAbsent(clazz, c -> new HashSet<>()).add(method)) {
+                    methods.add(method);
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                problem = entry + " : " + e;
+                break;
+            }
+        }
+        if (problem == null) {
+            for (Map.Entry<Class<?>, Set<Method>> controller : byClass.entrySet()) {
+                for (Method method : controller.getKey().getMethods()) {
+                    if (method.isAnnotationPresent(UrlAnnot.class) && !controller.getValue().contains(method)) {
+                        problem = "route non indexée : " + controller.getKey().getName() + "." + method.getName();
+                        break;
+                    }
+                }
+            }
+        }
+        if (problem == null) {
+            return methods;
+        }
+        if (!config.getBoolean("ROUTE_INDEX_FALLBACK", true)) {
+            throw new ServletException("Index des routes périmé, " + problem);
+        }
+        log("Index des routes périmé, scan du classpath à la place : " + problem);
+        return null;
+    }
+
+    private static String httpMethod(Method method) {
+        MethodMapping mapping = method.getAnnotation(MethodMapping.class);
+        return mapping != null ? mapping.value() : "GET";
+    }
+
+    private void registerRoute(Class<?> clazz, Method method, String httpMethod, String url,
+                               ControllerAnnot.Scope scope, ParameterBinder binder) throws ReflectiveOperationException {
+        Route route = new Route(clazz, method, httpMethod, url);
+        route.setResolvers(binder.compile(method));
+        route.setJson(method.isAnnotationPresent(JsonAnnot.class));
+        route.setInvoker(new ControllerInvoker(clazz, method, scope));
+        if (metrics != null) {
+            route.setMetrics(metrics.register(httpMethod, url));
+        }
+        if (method.isAnnotationPresent(AuthAnnot.class)) {
+            route.setAuthRule(Authorizer.compile(method.getAnnotation(AuthAnnot.class)));
+        }
+        route.setAdmission(Admission.compile(method, url, config));
+        if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+            route.setAsync(true);
+            route.setAsyncTimeout(asyncSupport.timeoutFor(url));
+        }
+
+        // GESTION CACHE : réponses GET synchrones uniquement
+        Cached cached = method.getAnnotation(Cached.class);
+        if (cached != null) {
+            if ("GET".equalsIgnoreCase(httpMethod) && !route.isAsync()) {
+                route.setCached(cached);
+                route.setCache(new ResponseCache(cached.maxEntries(), responseBudget));
+            } else {
+                log("@Cached ignoré sur " + httpMethod + " " + url + " : GET synchrone uniquement");
+            }
+        }
+        router.add(route);
     }
 
     @Override
-    protected void doPost(HttpServletRequest req, HttpServletResponse rep) throws ServletException, IOException {
-        processRequest(req, rep);
+    public void destroy() {
+        config.stopWatching();
+        if (asyncSupport != null) {
+            asyncSupport.shutdown();
+        }
+        if (batch != null) {
+            batch.shutdown();
+        }
+        super.destroy();
     }
 
-    private void processRequest(HttpServletRequest req, HttpServletResponse rep) throws IOException, ServletException {
+    /**
+     * Point d'entrée unique, toutes méthodes HTTP confondues : la méthode est résolue
+     * en identifiant (HttpMethods) et la route choisie par le routeur, sans doXxx intermédiaire.
+     */
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse rep) throws ServletException, IOException {
         String path = req.getRequestURI().substring(req.getContextPath().length());
-        String httpMethod = req.getMethod();
+        int methodId = HttpMethods.id(req.getMethod());
 
+        // GESTION MÉTRIQUES : exposition Prometheus
+        if (metrics != null && path.equals(metricsUrl)) {
+            rep.setContentType("text/plain; version=0.0.4; charset=utf-8");
+            metrics.write(rep.getWriter());
+            return;
+        }
+
+        // GESTION LOT : sous-requêtes exécutées en parallèle, réponses écrites dans l'ordre
+        if (batch != null && path.equals(batch.getUrl())) {
+            serveBatch(req, rep);
+            return;
+        }
+
+        // GESTION RESSOURCES STATIQUES : avant le routage, un fichier absent laisse la main aux routes
+        if (staticResources != null && (methodId == HttpMethods.GET || methodId == HttpMethods.HEAD)
+                && staticResources.handle(req, rep, path, methodId == HttpMethods.HEAD)) {
+            return;
+        }
+
+        long start = System.nanoTime();
         HashMap<String, String> pathVariables = new HashMap<>();
-        Route route = findRoute(path, httpMethod, pathVariables);
-        PrintWriter writer = rep.getWriter();
+        Route route = router.find(path, methodId, pathVariables);
+
+        // GESTION HEAD : à défaut de route HEAD explicite, la route GET répond sans corps
+        NoBodyResponseWrapper head = null;
+        if (route == null && methodId == HttpMethods.HEAD) {
+            route = router.find(path, HttpMethods.GET, pathVariables);
+            if (route != null) {
+                head = new NoBodyResponseWrapper(rep);
+                rep = head;
+            }
+        }
 
-        if (route != null) {
+        // GESTION COMPRESSION (Accept-Encoding), sauf HEAD qui n'a pas de corps
+        CompressingResponseWrapper compressing = null;
+        if (route != null && head == null && compression != null) {
+            String encoding = compression.negotiate(req);
+            if (encoding != null) {
+                compressing = new CompressingResponseWrapper(rep, compression, encoding);
+                rep = compressing;
+            }
+        }
 
-            // GESTION AUTHENTIFICATION
-            Method controller = route.getMethod();
-            if(controller.isAnnotationPresent(AuthAnnot.class)) 
-            {
-                AuthAnnot authAnnot = controller.getAnnotation(AuthAnnot.class);
-                String requiredRole = authAnnot.value();
-
-                FrameworkSession session = new FrameworkSession(req.getSession(false));
-                String userRole = (String) session.get(config.getProperty("AUTH_NAME"));
-
-                if(!requiredRole.isEmpty())
-                {
-                    if (userRole == null || !userRole.equals(requiredRole)) 
-                    {
-                        rep.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                        writer.println("Accès refusé : rôle requis - " + requiredRole);
-                        return;
-                    }
-                } 
+        if (route != null) {
+            Metrics.RouteMetrics routeMetrics = route.getMetrics();
+            if (routeMetrics != null) {
+                routeMetrics.record(Metrics.Phase.ROUTING, System.nanoTime() - start);
             }
-            
+
             try {
-                executeController(route, pathVariables, req, rep);
-            } catch (Exception e) {
-                e.printStackTrace();
-                writer.println("Erreur Serveur: " + e.getMessage());
+                dispatch(route, pathVariables, req, rep);
+            } finally {
+                if (head != null && !req.isAsyncStarted()) {
+                    head.finish();
+                }
+                if (compressing != null && !req.isAsyncStarted()) {
+                    compressing.finish();
+                }
+                if (routeMetrics != null && !req.isAsyncStarted()) {
+                    routeMetrics.status(rep.getStatus());
+                }
             }
         } else {
-            writer.println("Route introuvable : " + path);
+            noRoute(path, methodId, req, rep);
         }
     }
 
-    private Route findRoute(String path, String httpMethod, Map<String, String> pathVariables) {
-        for (Route route : routes) {
-            if (!route.getMethodHTTP().equalsIgnoreCase(httpMethod)) {
-                continue;
+    private void serveBatch(HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        CompressingResponseWrapper compressing = null;
+        String encoding = compression != null ? compression.negotiate(req) : null;
+        if (encoding != null) {
+            compressing = new CompressingResponseWrapper(rep, compression, encoding);
+            rep = compressing;
+        }
+        try {
+            batch.handle(req, rep, this::dispatchBatched);
+        } catch (HttpStatusException e) {
+            handleError(e, rep);
+        } finally {
+            if (compressing != null) {
+                compressing.finish();
             }
+        }
+    }
 
-            String routeUrl = route.getUrl();
-            if (routeUrl.equals(path)) {
-                return route;
+    /**
+     * Sous-requête d'un lot : même routage et même dispatch qu'une requête ordinaire,
+     * sauf les routes qui rendent une vue
+     */
+    private void dispatchBatched(String path, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        int methodId = HttpMethods.id(req.getMethod());
+        HashMap<String, String> pathVariables = new HashMap<>();
+        Route route = router.find(path, methodId, pathVariables);
+        if (route == null) {
+            noRoute(path, methodId, req, rep);
+            return;
+        }
+        if (!route.isJson() && ModelView.class.isAssignableFrom(route.getMethod().getReturnType())) {
+            rep.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            rep.getWriter().println("Vue non supportée dans un lot : " + path);
+            return;
+        }
+        try {
+            dispatch(route, pathVariables, req, rep);
+        } finally {
+            if (route.getMetrics() != null) {
+                route.getMetrics().status(rep.getStatus());
             }
+        }
+    }
 
-            pathVariables.clear(); 
-            if (isUrlMatch(routeUrl, path, pathVariables)) {
-                return route;
+    /**
+     * Aucune route pour ce couple (chemin, méthode) : OPTIONS et 405 se déduisent
+     * du masque des méthodes déclarées sur le chemin, 404 si le chemin est inconnu.
+     */
+    private void noRoute(String path, int methodId, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        long allowed = router.allowedMethods(path);
+        if (allowed == 0) {
+            if (metrics != null) {
+                metrics.unmatched();
             }
+            rep.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            rep.getWriter().println("Route introuvable : " + path);
+            return;
         }
-        return null;
+
+        if ((allowed & (1L << HttpMethods.GET)) != 0) {
+            allowed |= 1L << HttpMethods.HEAD;
+        }
+        allowed |= 1L << HttpMethods.OPTIONS;
+        rep.setHeader("Allow", HttpMethods.allow(allowed));
+
+        if (methodId == HttpMethods.OPTIONS) {
+            rep.setStatus(HttpServletResponse.SC_OK);
+            rep.setContentLength(0);
+            return;
+        }
+        if (metrics != null) {
+            metrics.unmatched();
+        }
+        rep.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        rep.getWriter().println("Méthode " + req.getMethod() + " non autorisée : " + path);
     }
 
-    private boolean isUrlMatch(String routeUrl, String path, Map<String, String> pathVariables) {
-        String regex = "^" + routeUrl.replaceAll("\\{([^/]+)\\}", "([^/]+)") + "$";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(path);
-
-        if (matcher.matches()) {
-            Pattern namePattern = Pattern.compile("\\{([^/]+)\\}");
-            Matcher nameMatcher = namePattern.matcher(routeUrl);
-            
-            int i = 1;
-            while (nameMatcher.find()) {
-                String paramName = nameMatcher.group(1);     
-                String paramValue = matcher.group(i);        
-                pathVariables.put(paramName, paramValue);
-                i++;
+    private void dispatch(Route route, Map<String, String> pathVariables, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        // GESTION ADMISSION : débit et concurrence, refus immédiat avant toute exécution
+        Admission admission = route.getAdmission();
+        if (admission == null) {
+            execute(route, pathVariables, req, rep);
+            return;
+        }
+        long enteredAt;
+        try {
+            enteredAt = admission.enter();
+        } catch (HttpStatusException e) {
+            handleError(e, rep);
+            return;
+        }
+        if (!admission.limitsConcurrency()) {
+            execute(route, pathVariables, req, rep);
+            return;
+        }
+
+        boolean released = false;
+        try {
+            execute(route, pathVariables, req, rep);
+            if (req.isAsyncStarted()) {
+                released = addExitListener(req.getAsyncContext(), admission, enteredAt);
+            }
+        } finally {
+            if (!released) {
+                admission.exit(enteredAt);
             }
+        }
+    }
+
+    /**
+     * Rend la place dans le bulkhead à la fin du cycle asynchrone ;
+     * false si ce cycle est déjà terminé (la place est alors rendue tout de suite)
+     */
+    private boolean addExitListener(AsyncContext async, Admission admission, long enteredAt) {
+        try {
+            async.addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    admission.exit(enteredAt);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) { }
+
+                @Override
+                public void onError(AsyncEvent event) { }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) { }
+            });
             return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private void execute(Route route, Map<String, String> pathVariables, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        // GESTION AUTHENTIFICATION (règle compilée dans init)
+        Authorizer.Rule authRule = route.getAuthRule();
+        if (authRule != null && !authRule.allows(Authorizer.grantedMask(FrameworkSession.of(req, rep, sessionStore)))) {
+            rep.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            rep.getWriter().println(authRule.getMessage());
+            return;
+        }
+
+        if (route.isAsync()) {
+            executeAsync(route, pathVariables, req, rep);
+            return;
+        }
+
+        // Cache posé sur les seules routes GET (HEAD y est servi via la route GET)
+        if (route.getCache() != null) {
+            executeCached(route, pathVariables, req, rep);
+            return;
+        }
+
+        try {
+            executeController(route, pathVariables, req, rep);
+        } catch (Exception e) {
+            handleError(e, rep);
+        }
+    }
+
+    /**
+     * Traduit une exception du contrôleur en réponse HTTP (si la réponse n'est pas encore envoyée)
+     */
+    private void handleError(Throwable error, HttpServletResponse rep) throws IOException {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+
+        if (error instanceof HttpStatusException) {
+            HttpStatusException e = (HttpStatusException) error;
+            if (!rep.isCommitted()) {
+                rep.reset();
+                rep.setStatus(e.getStatus());
+                e.getHeaders().forEach(rep::setHeader);
+                rep.getWriter().println(e.getMessage());
+            }
+        } else {
+            log("Erreur lors du traitement de la requête", error);
+            // Une réponse déjà partiellement envoyée (flux JSON) ne peut plus être remplacée
+            if (!rep.isCommitted()) {
+                rep.reset();
+                rep.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                rep.getWriter().println("Erreur Serveur: " + error.getMessage());
+            }
         }
-        return false;
     }
 
     private void executeController(Route route, Map<String, String> pathVariables, HttpServletRequest req, HttpServletResponse rep) throws Exception {
-        Method method = route.getMethod();
-        Object instance = route.getClazz().getDeclaredConstructor().newInstance();
-        Parameter[] params = method.getParameters();
-        Object[] args = new Object[params.length];
-
-        for (int i = 0; i < params.length; i++) {
-            Parameter param = params[i];
-            String paramName = param.getName();
-            Map<String, String[]> rawParameterMap = req.getParameterMap();
-
-            // GESTION DES SESSIONS
-            if (param.getType().equals(FrameworkSession.class)) {
-                args[i] = new FrameworkSession(req.getSession());
-                continue; // On passe au paramètre suivant
+        try {
+            Object returnValue = invokeController(route, pathVariables, req, rep);
+            renderResult(route, returnValue, req, rep);
+        } catch (Exception e) {
+            countError(route);
+            throw e;
+        }
+    }
+
+    private void countError(Route route) {
+        if (route.getMetrics() != null) {
+            route.getMetrics().error();
+        }
+    }
+
+    private Object invokeController(Route route, Map<String, String> pathVariables, HttpServletRequest req, HttpServletResponse rep) throws Exception {
+        Metrics.RouteMetrics routeMetrics = route.getMetrics();
+        long start = routeMetrics != null ? System.nanoTime() : 0;
+
+        ParameterResolver[] resolvers = route.getResolvers();
+        Object[] args = new Object[resolvers.length];
+
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(req, rep, pathVariables);
+        }
+
+        long bound = 0;
+        if (routeMetrics != null) {
+            bound = System.nanoTime();
+            routeMetrics.record(Metrics.Phase.BINDING, bound - start);
+        }
+
+        // INVOCATION, puis écriture des attributs de session modifiés (avant tout envoi de la réponse)
+        try {
+            return route.getInvoker().invoke(args);
+        } finally {
+            FrameworkSession.flush(req);
+            if (routeMetrics != null) {
+                routeMetrics.record(Metrics.Phase.INVOCATION, System.nanoTime() - bound);
             }
+        }
+    }
 
-            // GESTION DES MAPS (Parameters ou Uploads)
-            // Dans ta boucle executeController...
-
-            if (param.getType().equals(Map.class)) {
-                
-                // 1. Récupération du type générique de la Map (ex: Map<String, ???>)
-                ParameterizedType mapType = (ParameterizedType) param.getParameterizedType();
-                Type valueType = mapType.getActualTypeArguments()[1]; // On prend le 2ème argument (la Valeur)
-
-                boolean handled = false;
-
-                // -----------------------------------------------------
-                // CAS 1 : Upload Simple -> Map<String, byte[]>
-                // -----------------------------------------------------
-                // On compare directement l'objet Type avec la classe byte[]
-                if (valueType instanceof Class && ((Class<?>) valueType) == byte[].class) {
-                    
-                    Map<String, byte[]> fileMap = new HashMap<>();
-                    if (isMultipart(req)) {
-                        try {
-                            for (Part part : req.getParts()) {
-                                if (isPartFile(part)) {
-                                    try (InputStream is = part.getInputStream()) {
-                                        fileMap.put(part.getName(), is.readAllBytes());
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Erreur upload byte[] : " + e.getMessage());
-                        }
+    private void renderResult(Route route, Object returnValue, HttpServletRequest req, HttpServletResponse rep) throws Exception {
+        Metrics.RouteMetrics routeMetrics = route.getMetrics();
+        long start = routeMetrics != null ? System.nanoTime() : 0;
+        try {
+            render(route, returnValue, req, rep);
+        } finally {
+            if (routeMetrics != null) {
+                routeMetrics.record(Metrics.Phase.RENDERING, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void render(Route route, Object returnValue, HttpServletRequest req, HttpServletResponse rep) throws Exception {
+        // GESTION RETOUR (JSON vs VIEW)
+        if (route.isJson()) {
+            rep.setContentType("application/json;charset=UTF-8");
+            jsonWriter.write(rep.getOutputStream(), HttpServletResponse.SC_OK, returnValue);
+        } else {
+            if (returnValue instanceof ModelView && ((ModelView) returnValue).getCacheKey() != null) {
+                forwardCached((ModelView) returnValue, req, rep);
+            } else if (returnValue instanceof ModelView) {
+                ModelView mv = exposeModel((ModelView) returnValue, req);
+                RequestDispatcher dispatcher = req.getRequestDispatcher(mv.getView());
+                dispatcher.forward(req, rep);
+            } else if (returnValue instanceof String) {
+                rep.getWriter().println((String) returnValue);
+            } else {
+                rep.getWriter().println(String.valueOf(returnValue));
+            }
+        }
+    }
+
+    private ModelView exposeModel(ModelView mv, HttpServletRequest req) {
+        for (Map.Entry<String, Object> entry : mv.getAttributes().entrySet()) {
+            req.setAttribute(entry.getKey(), entry.getValue());
+        }
+        return mv;
+    }
+
+    // GESTION CACHE
+
+    /**
+     * Sert la réponse depuis le cache de la route (@Cached)
+     */
+    private void executeCached(Route route, Map<String, String> pathVariables, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        String key = cacheKey(route.getCached(), pathVariables, req);
+        serveCached(route.getCache(), key, route.getCached().ttl() * 1000L, req, rep,
+                target -> executeController(route, pathVariables, req, target));
+    }
+
+    /**
+     * Rendu d'une vue dont le ModelView a déclaré une clé de cache
+     */
+    private void forwardCached(ModelView mv, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        String key = mv.getView() + '|' + mv.getCacheKey();
+        serveCached(viewCache, key, mv.getCacheTtl() * 1000L, req, rep,
+                target -> req.getRequestDispatcher(exposeModel(mv, req).getView()).forward(req, target));
+    }
+
+    /**
+     * Sert l'entrée du cache ; sur une clé froide, une seule requête produit la réponse
+     * (capturée), les requêtes concurrentes attendent son résultat au plus CACHE_WAIT_MS
+     */
+    private void serveCached(ResponseCache cache, String key, long ttlMillis, HttpServletRequest req, HttpServletResponse rep,
+                             Renderer renderer) throws IOException {
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry == null) {
+            CompletableFuture<ResponseCache.Entry> flight = cache.claim(key);
+            if (flight != null) {
+                entry = await(flight);
+                if (entry == null) {
+                    // Le chargement concurrent n'a rien produit de réutilisable (ou trop tard) : exécution normale
+                    try {
+                        renderer.render(rep);
+                    } catch (Exception e) {
+                        handleError(e, rep);
                     }
-                    args[i] = fileMap;
-                    handled = true;
+                    return;
                 }
-
-                // -----------------------------------------------------
-                // CAS 2 : Upload Multiple -> Map<String, List<byte[]>>
-                // -----------------------------------------------------
-                // On vérifie structurellement si c'est une List<byte[]>
-                else if (isListOfByteArray(valueType)) {
-                    
-                    Map<String, List<byte[]>> multiFileMap = new HashMap<>();
-                    if (isMultipart(req)) {
-                        try {
-                            for (Part part : req.getParts()) {
-                                if (isPartFile(part)) {
-                                    multiFileMap.putIfAbsent(part.getName(), new ArrayList<>());
-                                    try (InputStream is = part.getInputStream()) {
-                                        multiFileMap.get(part.getName()).add(is.readAllBytes());
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Erreur upload List<byte[]> : " + e.getMessage());
-                        }
+            } else {
+                CapturingResponseWrapper capture = new CapturingResponseWrapper(rep);
+                try {
+                    renderer.render(capture);
+                    if (capture.isCacheable()) {
+                        entry = capture.toEntry(ttlMillis, compression);
                     }
-                    args[i] = multiFileMap;
-                    handled = true;
+                } catch (Exception e) {
+                    handleError(e, capture);
+                } finally {
+                    cache.release(key, entry);
+                }
+                if (entry == null) {
+                    capture.replay();
+                    return;
                 }
+            }
+        }
+        entry.writeTo(req, rep);
+    }
 
-                // -----------------------------------------------------
-                // CAS 3 : Paramètres classiques -> Map<String, Object[]>
-                // -----------------------------------------------------
-                if (!handled) {
-                    // Ta logique existante pour convertir req.getParameterMap()
-                    Map<String, Object[]> convertedParameterMap = new HashMap<>();
-                    for (Map.Entry<String, String[]> entry : rawParameterMap.entrySet()) {
-                        String key = entry.getKey();
-                        String[] rawValues = entry.getValue();
-                        Object[] convertedValues = new Object[rawValues.length];
-                        for (int j = 0; j < rawValues.length; j++) {
-                            convertedValues[j] = Convertor.detectAndCastValue(rawValues[j]);
-                        }
-                        convertedParameterMap.put(key, convertedValues);
-                    }
-                    args[i] = convertedParameterMap;
+    /**
+     * Résultat d'un chargement concurrent, ou null s'il ne se termine pas à temps
+     */
+    private ResponseCache.Entry await(CompletableFuture<ResponseCache.Entry> flight) {
+        try {
+            return flight.get(cacheWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+        void render(HttpServletResponse target) throws Exception;
+    }
+
+    /**
+     * Clé : variables de chemin puis paramètres retenus, triés par nom.
+     * Chaque valeur est préfixée par sa longueur pour qu'un "&" ou un "=" ne crée pas de collision.
+     */
+    private String cacheKey(Cached cached, Map<String, String> pathVariables, HttpServletRequest req) {
+        StringBuilder key = new StringBuilder(64);
+        new TreeMap<>(pathVariables).forEach((name, value) -> appendParameter(key, name, new String[] { value }));
+        key.append('|');
+
+        Map<String, String[]> parameters = req.getParameterMap();
+        if (cached.params().length == 0) {
+            new TreeMap<>(parameters).forEach((name, values) -> appendParameter(key, name, values));
+        } else {
+            for (String name : cached.params()) {
+                appendParameter(key, name, parameters.get(name));
+            }
+        }
+        return key.toString();
+    }
+
+    private void appendParameter(StringBuilder key, String name, String[] values) {
+        key.append(name).append('=');
+        if (values != null) {
+            for (String value : values) {
+                key.append(value.length()).append(':').append(value);
+            }
+        }
+        key.append('&');
+    }
+
+    // GESTION ASYNCHRONE
+
+    /**
+     * Contrôleur qui retourne un CompletionStage : le thread du conteneur est libéré aussitôt.
+     * La liaison et l'invocation s'exécutent sur l'exécuteur du framework (file bornée -> 503),
+     * le rendu a lieu à la complétion du résultat, dans la limite du délai de la route.
+     * Le délai est armé sur le thread des délais du framework plutôt que sur celui du conteneur :
+     * s'il échoit pendant l'invocation ou le rendu, il marque le cycle et le thread en cours le termine,
+     * sans qu'aucun thread n'attende ni que le conteneur écrive sa propre erreur par-dessus.
+     */
+    private void executeAsync(Route route, Map<String, String> pathVariables, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        if (!req.isAsyncSupported()) {
+            // Un filtre de la chaîne n'est pas asyncSupported : attente bloquante
+            executeBlocking(route, pathVariables, req, rep);
+            return;
+        }
+
+        AsyncContext async = req.startAsync(req, rep);
+        async.setTimeout(0);
+
+        // Le premier qui termine (résultat, erreur ou délai) écrit la réponse
+        AsyncCycle cycle = new AsyncCycle();
+        if (route.getAsyncTimeout() > 0) {
+            cycle.timer = asyncSupport.schedule(() -> onAsyncTimeout(async, cycle, route, rep), route.getAsyncTimeout());
+        }
+
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) { }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                // Connexion perdue ou erreur du conteneur : en attente, le cycle se termine ici ;
+                // pendant l'invocation ou le rendu, le thread en cours le terminera
+                if (cycle.interrupt() == AsyncCycle.PENDING) {
+                    cycle.cancel();
+                    complete(async);
                 }
-                continue;
             }
 
-            // GESTION OBJETS COMPLEXES
-            if (!isPrimitiveOrWrapper(param.getType()) && 
-                param.getType() != String.class && 
-                !param.getType().equals(Map.class)) {
-                
+            @Override
+            public void onComplete(AsyncEvent event) {
+                cycle.disarm();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) { }
+        });
+
+        try {
+            asyncSupport.getExecutor().execute(() -> {
+                CompletionStage<?> stage = null;
+                Exception failure = null;
                 try {
-                    Object mappedObject = ObjectMapper.mapToObject(rawParameterMap, param.getType(), paramName);
-                    if (mappedObject != null) {
-                        args[i] = mappedObject;
-                        continue;
-                    }
+                    stage = (CompletionStage<?>) invokeController(route, pathVariables, req, rep);
                 } catch (Exception e) {
-                    System.err.println("Mapping objet échoué: " + e.getMessage());
+                    failure = e;
                 }
-            }
-
-            // GESTION TYPES SIMPLES (String, int...)
-            String value = null;
-            if (param.isAnnotationPresent(RequestParam.class)) {
-                paramName = param.getAnnotation(RequestParam.class).value();
-                value = req.getParameter(paramName);
-                if (value == null && pathVariables.containsKey(paramName)) {
-                    value = pathVariables.get(paramName);
+                if (!cycle.invoked()) {
+                    // Délai ou erreur pendant l'invocation : ce thread termine le cycle à sa place
+                    if (stage != null) {
+                        stage.toCompletableFuture().cancel(true);
+                    }
+                    completeInterrupted(async, route, req, rep);
+                    return;
                 }
-            } else {
-                if (pathVariables.containsKey(paramName)) {
-                    value = pathVariables.get(paramName);
-                } else {
-                    value = req.getParameter(paramName);
+                if (failure != null || stage == null) {
+                    completeAsync(async, cycle, route, null, failure, req, rep);
+                    return;
                 }
-            }
-            
-            args[i] = castValue(value, param.getType());
+                cycle.pending.set(stage.toCompletableFuture());
+                if (cycle.isInterrupted()) {
+                    cycle.cancel();
+                }
+                stage.whenComplete((value, error) -> completeAsync(async, cycle, route, value, error, req, rep));
+            });
+        } catch (RejectedExecutionException e) {
+            cycle.invoked();
+            completeAsync(async, cycle, route, null,
+                    new HttpStatusException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Serveur saturé, réessayez plus tard")
+                            .header("Retry-After", "1"), req, rep);
         }
+    }
 
-        // INVOCATION
-        Object returnValue = method.invoke(instance, args);
+    /**
+     * Délai de la route échu (thread des délais) : seul un cycle en attente du résultat se termine ici
+     */
+    private void onAsyncTimeout(AsyncContext async, AsyncCycle cycle, Route route, HttpServletResponse rep) {
+        if (cycle.interrupt() != AsyncCycle.PENDING) {
+            // Invocation ou rendu en cours : le thread concerné termine le cycle ; déjà terminé : rien
+            return;
+        }
+        cycle.cancel();
+        try {
+            handleError(timeout(route), rep);
+            finishResponse(rep);
+        } catch (IOException e) {
+            log("Erreur lors de l'écriture du délai dépassé de " + route.getUrl(), e);
+        }
+        if (route.getMetrics() != null) {
+            route.getMetrics().status(rep.getStatus());
+        }
+        complete(async);
+    }
 
-        // GESTION RETOUR (JSON vs VIEW)
-        if (method.isAnnotationPresent(JsonAnnot.class)) {
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            rep.setContentType("application/json;charset=UTF-8");
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("code", HttpServletResponse.SC_OK);
-
-            if (returnValue instanceof Collection<?>) {
-                Map<String, Object> dataMap = new HashMap<>();
-                dataMap.put("count", ((Collection<?>) returnValue).size());
-                dataMap.put("items", returnValue);
-                response.put("data", dataMap);
-            } else if (returnValue instanceof Map<?, ?>) {
-                Map<String, Object> dataMap = new HashMap<>();
-                dataMap.put("count", ((Map<?, ?>) returnValue).size());
-                dataMap.put("items", returnValue);
-                response.put("data", dataMap);
-            } else {
-                response.put("data", returnValue);
-            }
+    /**
+     * Fin d'un cycle interrompu pendant l'invocation : la réponse est l'erreur de délai
+     */
+    private void completeInterrupted(AsyncContext async, Route route, HttpServletRequest req, HttpServletResponse rep) {
+        try {
+            FrameworkSession.flush(req);
+            handleError(timeout(route), rep);
+            finishResponse(rep);
+        } catch (Exception e) {
+            log("Erreur lors de l'écriture du délai dépassé de " + route.getUrl(), e);
+        }
+        if (route.getMetrics() != null) {
+            route.getMetrics().status(rep.getStatus());
+        }
+        complete(async);
+    }
 
-            PrintWriter out = rep.getWriter();
-            out.print(objectMapper.writeValueAsString(response));
-            out.flush();
-        } else {
-            if (returnValue instanceof ModelView) {
-                ModelView mv = (ModelView) returnValue;
-                for (Map.Entry<String, Object> entry : mv.getAttributes().entrySet()) {
-                    req.setAttribute(entry.getKey(), entry.getValue());
+    private void completeAsync(AsyncContext async, AsyncCycle cycle, Route route, Object value, Throwable error,
+                               HttpServletRequest req, HttpServletResponse rep) {
+        if (!cycle.startRendering()) {
+            return;
+        }
+        try {
+            FrameworkSession.flush(req);
+            if (error != null) {
+                countError(route);
+                handleError(error, rep);
+            } else if (value instanceof ModelView && !route.isJson()) {
+                // La vue est rendue par le conteneur : dispatch termine le cycle asynchrone
+                if (cycle.claim()) {
+                    if (rep instanceof CompressingResponseWrapper) {
+                        ((CompressingResponseWrapper) rep).passThrough();
+                    }
+                    async.dispatch(exposeModel((ModelView) value, req).getView());
+                    return;
                 }
-                RequestDispatcher dispatcher = req.getRequestDispatcher(mv.getView());
-                dispatcher.forward(req, rep);
-            } else if (returnValue instanceof String) {
-                rep.getWriter().println((String) returnValue);
+                // Délai écoulé entre-temps : la réponse est son erreur
+                handleError(timeout(route), rep);
             } else {
-                rep.getWriter().println(String.valueOf(returnValue));
+                renderResult(route, value, req, rep);
             }
+            finishResponse(rep);
+        } catch (Exception e) {
+            log("Erreur lors du rendu asynchrone de " + route.getUrl(), e);
         }
+        if (route.getMetrics() != null) {
+            route.getMetrics().status(rep.getStatus());
+        }
+        // Le thread du rendu termine le cycle, même si un délai ou une erreur l'a marqué entre-temps
+        cycle.claim();
+        complete(async);
     }
 
-    private Object castValue(String value, Class<?> type) {
-        if (value == null) return null;
-        if (type == String.class) return value;
-        if (type == Integer.class || type == int.class) return Integer.parseInt(value);
-        if (type == Double.class || type == double.class) return Double.parseDouble(value);
-        if (type == Float.class || type == float.class) return Float.parseFloat(value);
-        if (type == Long.class || type == long.class) return Long.parseLong(value);
-        return value; 
+    private static void complete(AsyncContext async) {
+        try {
+            async.complete();
+        } catch (IllegalStateException e) {
+            // Déjà terminé par le conteneur (erreur de connexion)
+        }
     }
 
-    private boolean isPrimitiveOrWrapper(Class<?> type) {
-        return type.isPrimitive() ||
-               type == Integer.class ||
-               type == Long.class ||
-               type == Double.class ||
-               type == Float.class ||
-               type == Boolean.class ||
-               type == Character.class ||
-               type == Byte.class ||
-               type == Short.class;
+    private static HttpStatusException timeout(Route route) {
+        return new HttpStatusException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Délai dépassé : " + route.getUrl());
     }
 
     /**
-     * Vérifie si le type donné correspond exactement à List<byte[]>
+     * État d'une requête asynchrone : INVOKING (liaison et invocation sur l'exécuteur) -> PENDING
+     * (en attente du résultat) -> RENDERING (rendu en cours) -> DONE. Un délai ou une erreur passe
+     * à INTERRUPTED : en attente, il termine le cycle lui-même ; pendant l'invocation ou le rendu,
+     * il ne fait que marquer le cycle, et le thread en cours le termine en sortant.
+     * Un seul thread appelle complete() ou dispatch().
      */
-    private boolean isListOfByteArray(Type type) {
-        if (type instanceof ParameterizedType) {
-            ParameterizedType pType = (ParameterizedType) type;
-            // 1. Est-ce que le conteneur est une List ?
-            if (pType.getRawType().equals(List.class)) {
-                // 2. Est-ce que le générique interne est byte[] ?
-                Type[] args = pType.getActualTypeArguments();
-                if (args.length > 0 && args[0] == byte[].class) {
-                    return true;
+    private static final class AsyncCycle {
+        static final int INVOKING = 0;
+        static final int PENDING = 1;
+        static final int RENDERING = 2;
+        static final int DONE = 3;
+        static final int INTERRUPTED = 4;
+
+        private final AtomicInteger state = new AtomicInteger(INVOKING);
+        final AtomicReference<CompletableFuture<?>> pending = new AtomicReference<>();
+        volatile ScheduledFuture<?> timer;
+
+        /**
+         * Fin de l'invocation ; false si un délai ou une erreur est survenu pendant
+         */
+        boolean invoked() {
+            return state.compareAndSet(INVOKING, PENDING);
+        }
+
+        boolean startRendering() {
+            return state.compareAndSet(PENDING, RENDERING);
+        }
+
+        /**
+         * Le thread du rendu garde la fin du cycle ; false si un délai ou une erreur l'a marqué
+         */
+        boolean claim() {
+            return state.compareAndSet(RENDERING, DONE);
+        }
+
+        boolean isInterrupted() {
+            return state.get() == INTERRUPTED;
+        }
+
+        /**
+         * Délai ou erreur : passe à INTERRUPTED et retourne l'état précédent
+         */
+        int interrupt() {
+            while (true) {
+                int current = state.get();
+                if (current == DONE || current == INTERRUPTED) {
+                    return current;
+                }
+                if (state.compareAndSet(current, INTERRUPTED)) {
+                    return current;
                 }
             }
         }
-        return false;
+
+        void cancel() {
+            CompletableFuture<?> future = pending.get();
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        void disarm() {
+            ScheduledFuture<?> scheduled = timer;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
     }
 
     /**
-     * Vérifie si la requête est multipart
+     * Fin d'une réponse asynchrone, à la place de service() qui a déjà rendu la main :
+     * termine le flux compressé, ou pose le Content-Length d'un HEAD servi par la route GET
      */
-    private boolean isMultipart(HttpServletRequest req) {
-        String contentType = req.getContentType();
-        return contentType != null && contentType.startsWith("multipart/form-data");
+    private void finishResponse(HttpServletResponse rep) throws IOException {
+        if (rep instanceof CompressingResponseWrapper) {
+            ((CompressingResponseWrapper) rep).finish();
+        } else if (rep instanceof NoBodyResponseWrapper) {
+            ((NoBodyResponseWrapper) rep).finish();
+        }
     }
 
-    /**
-     * Vérifie si une "Part" est bien un fichier (et non un champ texte)
-     */
-    private boolean isPartFile(Part part) {
-        return part.getSubmittedFileName() != null && !part.getSubmittedFileName().isEmpty();
+    private void executeBlocking(Route route, Map<String, String> pathVariables, HttpServletRequest req, HttpServletResponse rep) throws IOException {
+        try {
+            CompletionStage<?> stage = (CompletionStage<?>) invokeController(route, pathVariables, req, rep);
+            Object value = null;
+            if (stage != null) {
+                CompletableFuture<?> future = stage.toCompletableFuture();
+                value = route.getAsyncTimeout() > 0 ? future.get(route.getAsyncTimeout(), TimeUnit.MILLISECONDS) : future.join();
+            }
+            renderResult(route, value, req, rep);
+        } catch (TimeoutException e) {
+            handleError(timeout(route), rep);
+        } catch (Exception e) {
+            countError(route);
+            handleError(e, rep);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package framework.servlet;
+
+import java.util.Set;
+
+import javax.servlet.ServletContainerInitializer;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRegistration;
+import javax.servlet.annotation.MultipartConfig;
+
+import framework.util.ProjectConfig;
+import framework.util.Uploads;
+
+/**
+ * Appelé par le conteneur au démarrage de l'application (META-INF/services) : reporte les limites
+ * d'envoi de app.properties dans la configuration multipart de FrontServlet, pour que le conteneur
+ * interrompe la lecture d'un corps trop gros au lieu de l'écrire entièrement sur disque.
+ * Une configuration multipart de web.xml (multipart-config) n'est pas modifiée.
+ */
+public class FrontServletInitializer implements ServletContainerInitializer {
+
+    @Override
+    public void onStartup(Set<Class<?>> classes, ServletContext ctx) {
+        MultipartConfig multipart = FrontServlet.class.getAnnotation(MultipartConfig.class);
+        if (multipart == null || ctx.getServletRegistrations() == null) {
+            return;
+        }
+        ProjectConfig config = null;
+        for (ServletRegistration registration : ctx.getServletRegistrations().values()) {
+            if (!FrontServlet.class.getName().equals(registration.getClassName())
+                    || !(registration instanceof ServletRegistration.Dynamic)) {
+                continue;
+            }
+            if (config == null) {
+                config = new ProjectConfig();
+            }
+            try {
+                ((ServletRegistration.Dynamic) registration).setMultipartConfig(Uploads.multipartConfig(config, multipart));
+            } catch (IllegalStateException e) {
+                // Contexte déjà initialisé : la configuration de @MultipartConfig reste en place
+                System.err.println("Limites d'envoi non transmises au conteneur : " + e.getMessage());
+            }
+        }
+    }
+}
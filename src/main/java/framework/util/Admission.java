@@ -0,0 +1,197 @@
+package framework.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletResponse;
+
+import framework.annotation.Bulkhead;
+import framework.annotation.RateLimit;
+
+/**
+ * Contrôle d'admission d'une route, vérifié avant toute exécution : débit (@RateLimit -> 429)
+ * et exécutions simultanées (@Bulkhead -> 503), avec Retry-After. Tout est sans verrou :
+ * un CAS par requête admise, rien n'est mis en file d'attente.
+ *
+ * Paramètres de app.properties (prioritaires sur les annotations, lus dans init()) :
+ *   RATE_LIMIT.<url>           requêtes par seconde, ex: RATE_LIMIT./api/recherche=50
+ *   RATE_LIMIT_BURST.<url>     rafale tolérée (défaut : une seconde de débit)
+ *   BULKHEAD.<url>             exécutions simultanées au plus
+ *   BULKHEAD_TARGET_MS.<url>   latence visée : la limite s'adapte (AIMD) pour la tenir
+ */
+public class Admission {
+
+    private final RateLimiter rateLimiter;
+    private final Limiter limiter;
+    private final LongAdder rejected = new LongAdder();
+
+    private Admission(RateLimiter rateLimiter, Limiter limiter) {
+        this.rateLimiter = rateLimiter;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Admission d'une route d'après ses annotations et app.properties ; null si aucune limite
+     */
+    public static Admission compile(Method method, String url, ProjectConfig config) {
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        Bulkhead bulkhead = method.getAnnotation(Bulkhead.class);
+
+        double rate = config.getDouble("RATE_LIMIT." + url, rateLimit != null ? rateLimit.value() : 0);
+        int burst = config.getInt("RATE_LIMIT_BURST." + url, rateLimit != null ? rateLimit.burst() : 0);
+        int maxConcurrent = config.getInt("BULKHEAD." + url, bulkhead != null ? bulkhead.value() : 0);
+        long targetMs = config.getLong("BULKHEAD_TARGET_MS." + url, bulkhead != null ? bulkhead.targetLatencyMs() : 0);
+
+        RateLimiter rateLimiter = rate > 0 ? new RateLimiter(rate, burst) : null;
+        Limiter limiter = maxConcurrent > 0 ? new Limiter(maxConcurrent, TimeUnit.MILLISECONDS.toNanos(Math.max(0, targetMs))) : null;
+        if (rateLimiter == null && limiter == null) {
+            return null;
+        }
+        return new Admission(rateLimiter, limiter);
+    }
+
+    /**
+     * Admet la requête ou lève HttpStatusException (429 / 503 avec Retry-After).
+     * Retourne l'instant d'entrée, à rendre à exit() une fois la requête terminée.
+     */
+    public long enter() {
+        long now = System.nanoTime();
+        if (rateLimiter != null) {
+            long wait = rateLimiter.acquire(now);
+            if (wait > 0) {
+                rejected.increment();
+                throw new HttpStatusException(429, "Trop de requêtes, réessayez plus tard")
+                        .header("Retry-After", retryAfter(wait));
+            }
+        }
+        if (limiter != null && !limiter.tryAcquire()) {
+            rejected.increment();
+            throw new HttpStatusException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Serveur saturé, réessayez plus tard")
+                    .header("Retry-After", "1");
+        }
+        return now;
+    }
+
+    /**
+     * Fin d'une requête admise par enter() (libère sa place dans le bulkhead)
+     */
+    public void exit(long enteredAt) {
+        if (limiter != null) {
+            limiter.release(System.nanoTime() - enteredAt);
+        }
+    }
+
+    public boolean limitsConcurrency() {
+        return limiter != null;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Limite de concurrence en vigueur (adaptative ou fixe) ; -1 sans bulkhead
+     */
+    public int getConcurrencyLimit() {
+        return limiter != null ? limiter.limit.get() : -1;
+    }
+
+    // Secondes entières, arrondies au-dessus : jamais 0
+    private static String retryAfter(long waitNanos) {
+        return Long.toString(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+    }
+
+    /**
+     * Seau à jetons en GCRA : un seul AtomicLong, l'instant théorique d'arrivée (TAT).
+     * Une requête est admise si le TAT n'avance pas de plus de la rafale tolérée sur l'horloge.
+     */
+    static final class RateLimiter {
+        private final long interval;
+        private final long tolerance;
+        private final AtomicLong theoreticalArrival;
+
+        RateLimiter(double perSecond, int burst) {
+            this.interval = Math.max(1, (long) (1_000_000_000L / perSecond));
+            int size = burst > 0 ? burst : (int) Math.max(1, Math.ceil(perSecond));
+            this.tolerance = interval * (size - 1);
+            this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * 0 si admise, sinon l'attente en nanosecondes avant qu'une requête le soit
+         */
+        long acquire(long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long base = tat - now > 0 ? tat : now;
+                long ahead = base - now;
+                if (ahead > tolerance) {
+                    return ahead - tolerance;
+                }
+                if (theoreticalArrival.compareAndSet(tat, base + interval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Bulkhead : compteur d'exécutions en cours borné par une limite.
+     * Avec une latence cible, la limite suit un AIMD : -25 % (au plus une fois par période cible)
+     * quand une requête dépasse la cible, +1 après une « fenêtre » de requêtes qui la tiennent.
+     */
+    static final class Limiter {
+        private final int max;
+        private final long targetNanos;
+        final AtomicInteger limit;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+        Limiter(int max, long targetNanos) {
+            this.max = max;
+            this.targetNanos = targetNanos;
+            this.limit = new AtomicInteger(max);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit.get()) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(long latencyNanos) {
+            inFlight.decrementAndGet();
+            if (targetNanos <= 0) {
+                return;
+            }
+            if (latencyNanos > targetNanos) {
+                successes.set(0);
+                long now = System.nanoTime();
+                long last = lastDecrease.get();
+                // Une rafale de réponses lentes ne compte qu'une fois par période
+                if (now - last >= targetNanos && lastDecrease.compareAndSet(last, now)) {
+                    int current;
+                    do {
+                        current = limit.get();
+                    } while (current > 1 && !limit.compareAndSet(current, Math.max(1, current - Math.max(1, current / 4))));
+                }
+            } else {
+                int current = limit.get();
+                if (current < max && successes.incrementAndGet() >= current) {
+                    successes.set(0);
+                    limit.compareAndSet(current, current + 1);
+                }
+            }
+        }
+    }
+}
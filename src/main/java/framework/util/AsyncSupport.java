@@ -0,0 +1,96 @@
+package framework.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécution des contrôleurs asynchrones (retour CompletableFuture / CompletionStage).
+ * Paramètres de app.properties :
+ *   ASYNC_POOL_SIZE          nombre de threads (défaut : 2 x processeurs), ajusté au rechargement à chaud
+ *   ASYNC_QUEUE_CAPACITY     taille de la file d'attente bornée (défaut : 256) ; au-delà -> 503
+ *   ASYNC_TIMEOUT_MS         délai maximal d'une requête asynchrone (défaut : 30000, 0 = aucun)
+ *   ASYNC_TIMEOUT_MS.<url>   délai propre à une route, ex: ASYNC_TIMEOUT_MS./rapport/{id}=120000
+ */
+public class AsyncSupport {
+
+    private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final ProjectConfig config;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final long defaultTimeout;
+
+    public AsyncSupport(ProjectConfig config) {
+        this.config = config;
+        int poolSize = config.getInt("ASYNC_POOL_SIZE", DEFAULT_POOL_SIZE);
+        int queueCapacity = config.getInt("ASYNC_QUEUE_CAPACITY", 256);
+        this.defaultTimeout = config.getLong("ASYNC_TIMEOUT_MS", 30000);
+
+        // Pool fixe et file bornée : la politique par défaut (AbortPolicy) rejette au lieu d'accumuler
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("framework-async"));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        // Délais des requêtes : un seul thread, qui ne fait que marquer ou terminer les cycles
+        this.timer = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("framework-async-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        // Rechargement à chaud : seule la taille du pool s'ajuste sans redémarrage
+        config.addReloadListener(reloaded -> resize(reloaded.getInt("ASYNC_POOL_SIZE", DEFAULT_POOL_SIZE)));
+    }
+
+    private synchronized void resize(int poolSize) {
+        if (poolSize > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(poolSize);
+            executor.setCorePoolSize(poolSize);
+        } else if (poolSize < executor.getMaximumPoolSize()) {
+            executor.setCorePoolSize(poolSize);
+            executor.setMaximumPoolSize(poolSize);
+        }
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Exécute la tâche après le délai, sur le thread des délais ; annuler le résultat la retire aussitôt
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        return timer.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Délai de la route en millisecondes (0 = aucun)
+     */
+    public long timeoutFor(String url) {
+        return config.getLong("ASYNC_TIMEOUT_MS." + url, defaultTimeout);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        timer.shutdownNow();
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+        private final String prefix;
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package framework.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import framework.annotation.AuthAnnot;
+
+/**
+ * Autorisation par rôles, précompilée au démarrage.
+ * Chaque rôle reçoit un bit ; l'ensemble des rôles d'un utilisateur (hiérarchie comprise)
+ * est un masque long, et une route autorise si le masque croise celui de ses rôles requis.
+ *
+ * Paramètres de app.properties :
+ *   AUTH_NAME        attribut de session contenant le rôle (String) ou les rôles (String[], Collection)
+ *   AUTH_HIERARCHY   inclusions de rôles, ex: admin>manager,manager>user (admin a aussi les droits de manager et user)
+ *
+ * Les bits suivent l'ordre alphabétique des rôles connus (routes et hiérarchie), pas l'ordre
+ * d'enregistrement : deux nœuds ou deux déploiements avec les mêmes rôles ont la même table.
+ *
+ * Un contrôleur qui connecte un utilisateur peut appeler grant() : le masque est alors
+ * stocké dans la session avec l'empreinte de la table des rôles et le rôle dont il est issu.
+ * Si la table a changé depuis (nouveau rôle, hiérarchie modifiée, autre version de l'application)
+ * ou si AUTH_NAME a été modifié sans passer par grant(), le masque est ignoré et recalculé
+ * depuis les noms de rôles de la session ; sans AUTH_NAME, l'utilisateur n'a aucun rôle.
+ */
+public class Authorizer {
+
+    // Bit 0 : utilisateur authentifié, quel que soit son rôle ; bits 1 à 63 : rôles
+    private static final long AUTHENTICATED = 1L;
+    private static final int MAX_ROLES = 63;
+
+    private static final Map<String, Integer> BITS = new ConcurrentHashMap<>();
+    private static final Map<String, Set<String>> IMPLIED = new ConcurrentHashMap<>();
+    private static final Map<String, Long> MASKS = new ConcurrentHashMap<>();
+    private static final Set<String> ROLES = new TreeSet<>();
+    private static final List<Rule> RULES = new CopyOnWriteArrayList<>();
+    private static volatile String authName = "role";
+    private static volatile String fingerprint = "";
+
+    /**
+     * Lit AUTH_NAME et AUTH_HIERARCHY, une fois, dans init()
+     */
+    public static synchronized void configure(ProjectConfig config) {
+        authName = config.getProperty("AUTH_NAME", "role").trim();
+        IMPLIED.clear();
+        ROLES.clear();
+        RULES.clear();
+
+        List<String> roles = new ArrayList<>();
+        for (String chain : config.getList("AUTH_HIERARCHY")) {
+            String[] chained = chain.split(">");
+            for (int i = 0; i < chained.length; i++) {
+                if (!chained[i].isBlank()) {
+                    roles.add(chained[i].trim());
+                }
+                if (i + 1 < chained.length) {
+                    IMPLIED.computeIfAbsent(chained[i].trim(), k -> new LinkedHashSet<>()).add(chained[i + 1].trim());
+                }
+            }
+        }
+        declare(roles);
+    }
+
+    /**
+     * Règle d'une route annotée @AuthAnnot
+     */
+    public static synchronized Rule compile(AuthAnnot authAnnot) {
+        List<String> roles = new ArrayList<>();
+        for (String role : authAnnot.value()) {
+            if (!role.isBlank()) {
+                roles.add(role.trim());
+            }
+        }
+        String message = roles.isEmpty()
+                ? "Accès refusé : authentification requise"
+                : "Accès refusé : rôle requis - " + String.join(", ", authAnnot.value());
+        Rule rule = new Rule(roles.toArray(new String[0]), message);
+        RULES.add(rule);
+        // Un nouveau rôle renumérote la table : la règle reçoit ses bits définitifs
+        if (!declare(roles)) {
+            rule.resolve();
+        }
+        return rule;
+    }
+
+    /**
+     * Rôles accordés par la session de la requête (0 = non authentifié)
+     */
+    public static long grantedMask(FrameworkSession session) {
+        Object roles = session.get(authName);
+        if (roles == null) {
+            return 0;
+        }
+        Object stored = session.get(maskKey());
+        if (stored instanceof String) {
+            Long mask = decode((String) stored, roles);
+            if (mask != null) {
+                return mask;
+            }
+        }
+        // Pas de masque, masque d'une autre table des rôles ou d'un autre rôle : recalcul depuis les noms
+        long mask = mask(roles);
+        if (stored != null) {
+            session.put(maskKey(), encode(mask, roles));
+        }
+        return mask;
+    }
+
+    /**
+     * Connecte l'utilisateur avec ces rôles : AUTH_NAME reçoit le rôle (ou le tableau de rôles),
+     * le masque précalculé est stocké à côté
+     */
+    public static void grant(FrameworkSession session, String... roles) {
+        session.put(authName, roles.length == 1 ? roles[0] : roles);
+        session.put(maskKey(), encode(mask(roles), roles));
+    }
+
+    public static void revoke(FrameworkSession session) {
+        session.remove(authName);
+        session.remove(maskKey());
+    }
+
+    /**
+     * Masque d'une valeur de rôle(s) : String, String[] ou Collection
+     */
+    public static long mask(Object roles) {
+        if (roles == null) {
+            return 0;
+        }
+        if (roles instanceof String) {
+            return roleMask((String) roles);
+        }
+        long mask = 0;
+        if (roles instanceof Object[]) {
+            for (Object role : (Object[]) roles) {
+                mask |= role == null ? 0 : roleMask(role.toString());
+            }
+        } else if (roles instanceof Collection) {
+            for (Object role : (Collection<?>) roles) {
+                mask |= role == null ? 0 : roleMask(role.toString());
+            }
+        } else {
+            mask = roleMask(roles.toString());
+        }
+        return mask;
+    }
+
+    /**
+     * Le rôle, les rôles qu'il inclut (transitivement) et le bit "authentifié".
+     * Un rôle inconnu des routes et de la hiérarchie ne donne que le bit "authentifié".
+     */
+    private static long roleMask(String role) {
+        Long mask = MASKS.get(role);
+        if (mask != null) {
+            return mask;
+        }
+        if (!BITS.containsKey(role) && !IMPLIED.containsKey(role)) {
+            return AUTHENTICATED;
+        }
+        long computed = AUTHENTICATED;
+        List<String> pending = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        pending.add(role);
+        while (!pending.isEmpty()) {
+            String current = pending.remove(pending.size() - 1);
+            if (!seen.add(current)) {
+                continue;
+            }
+            Integer bit = BITS.get(current);
+            if (bit != null) {
+                computed |= 1L << bit;
+            }
+            pending.addAll(IMPLIED.getOrDefault(current, Set.of()));
+        }
+        MASKS.put(role, computed);
+        return computed;
+    }
+
+    /**
+     * Ajoute des rôles à la table ; s'il y en a de nouveaux, les bits sont réattribués
+     * par ordre alphabétique et toutes les règles recalculées. Retourne true dans ce cas.
+     */
+    private static synchronized boolean declare(Collection<String> roles) {
+        if (!ROLES.addAll(roles)) {
+            return false;
+        }
+        if (ROLES.size() > MAX_ROLES) {
+            throw new IllegalStateException("Trop de rôles distincts (max " + MAX_ROLES + ") : " + ROLES);
+        }
+        BITS.clear();
+        MASKS.clear();
+        int bit = 1;
+        for (String role : ROLES) {
+            BITS.put(role, bit++);
+        }
+        fingerprint = fingerprint();
+        for (Rule rule : RULES) {
+            rule.resolve();
+        }
+        return true;
+    }
+
+    /**
+     * Empreinte de la table : rôles et hiérarchie, dans un ordre indépendant de l'enregistrement
+     */
+    private static String fingerprint() {
+        StringBuilder table = new StringBuilder(String.join(",", ROLES)).append('|');
+        new TreeMap<>(IMPLIED).forEach((role, implied) -> table.append(role).append('>').append(new TreeSet<>(implied)).append(';'));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(table.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Masque stocké en session : "empreinte:masque hexadécimal:rôle(s)". Le rôle est celui
+     * d'AUTH_NAME au moment du calcul : si l'attribut est retiré ou remplacé, le masque ne vaut plus.
+     */
+    private static String encode(long mask, Object roles) {
+        return fingerprint + ':' + Long.toHexString(mask) + ':' + roleKey(roles);
+    }
+
+    /**
+     * Masque d'une valeur stockée, ou null si elle vient d'une autre table ou d'un autre rôle
+     */
+    private static Long decode(String value, Object roles) {
+        String prefix = fingerprint;
+        if (value.length() <= prefix.length() || !value.startsWith(prefix) || value.charAt(prefix.length()) != ':') {
+            return null;
+        }
+        int end = value.indexOf(':', prefix.length() + 1);
+        if (end < 0 || !value.substring(end + 1).equals(roleKey(roles))) {
+            return null;
+        }
+        try {
+            return Long.parseUnsignedLong(value.substring(prefix.length() + 1, end), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Forme canonique d'une valeur de rôle(s), comparée par égalité
+     */
+    private static String roleKey(Object roles) {
+        Iterable<?> values;
+        if (roles instanceof Object[]) {
+            values = Arrays.asList((Object[]) roles);
+        } else if (roles instanceof Collection) {
+            values = (Collection<?>) roles;
+        } else {
+            return String.valueOf(roles);
+        }
+        StringBuilder key = new StringBuilder();
+        for (Object role : values) {
+            key.append(role).append('\n');
+        }
+        return key.toString();
+    }
+
+    private static String maskKey() {
+        return authName + ".mask";
+    }
+
+    /**
+     * Décision d'accès d'une route, en temps constant
+     */
+    public static final class Rule {
+        private final String[] roles;
+        private final String message;
+        private volatile long required;
+
+        Rule(String[] roles, String message) {
+            this.roles = roles;
+            this.message = message;
+        }
+
+        void resolve() {
+            long mask = 0;
+            for (String role : roles) {
+                mask |= 1L << BITS.get(role);
+            }
+            required = mask;
+        }
+
+        public boolean allows(long granted) {
+            return required == 0 ? (granted & AUTHENTICATED) != 0 : (granted & required) != 0;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
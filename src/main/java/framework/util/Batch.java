@@ -0,0 +1,749 @@
+package framework.util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Lot de requêtes : un POST sur BATCH_URL porte un tableau JSON de sous-requêtes
+ *   [{"method":"GET","path":"/produits/3","params":{"page":1}}, {"method":"POST","path":"/panier","body":{...}}]
+ * Chaque sous-requête passe par le routage et le dispatch habituels (admission, authentification,
+ * cache, liaison) sur un exécuteur borné. La réponse est un tableau dans l'ordre des sous-requêtes,
+ * écrit au fil des résultats :
+ *   [{"status":200,"body":{...}},{"status":201,"headers":{"Location":"/panier/4"},"body":null}]
+ * Un corps JSON est recopié tel quel, tout autre corps devient une chaîne ; les en-têtes posés
+ * par la route (Location, Retry-After, ETag...) sont rendus dans "headers" (valeur multiple : tableau).
+ * Le lot exige Content-Type: application/json (415 sinon), comme @RequestBody.
+ *
+ * Paramètres de app.properties :
+ *   BATCH_URL              URL du lot, ex: /batch (absent = désactivé)
+ *   BATCH_POOL_SIZE        threads dédiés aux sous-requêtes (défaut : nombre de processeurs)
+ *   BATCH_QUEUE_CAPACITY   file d'attente bornée (défaut : 256) ; pleine, le thread du lot exécute lui-même
+ *   BATCH_MAX_REQUESTS     sous-requêtes par lot au plus (défaut : 50) ; au-delà -> 413
+ *   REQUEST_BODY_MAX_SIZE  taille maximale du tableau JSON, comme pour @RequestBody
+ *
+ * Les sous-requêtes partagent les en-têtes, les cookies et la session du lot : une seule FrameworkSession,
+ * synchronisée, sert de verrou à tout accès à la requête et à la réponse du conteneur (qui ne sont pas
+ * thread-safe). La session est donc créée une seule fois et aucune écriture n'est perdue, mais l'ordre
+ * des écritures entre sous-requêtes parallèles n'est pas garanti. Les vues (ModelView) sont refusées.
+ */
+public class Batch {
+
+    /**
+     * Exécution d'une sous-requête par FrontServlet (routage puis dispatch)
+     */
+    public interface Dispatcher {
+        void dispatch(String path, HttpServletRequest req, HttpServletResponse rep) throws IOException;
+    }
+
+    // En-têtes propres au corps ou à la négociation du lot, sans objet pour une sous-requête
+    private static final Set<String> HIDDEN_HEADERS = Set.of(
+            "content-type", "content-length", "transfer-encoding", "expect", "accept-encoding",
+            "range", "if-range", "if-match", "if-none-match", "if-modified-since", "if-unmodified-since");
+
+    private final String url;
+    private final int maxRequests;
+    private final long maxSize;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final ThreadPoolExecutor executor;
+    private final SessionStore sessionStore;
+    private final ServletContext context;
+
+    public Batch(String url, ProjectConfig config, JsonCodec codec, SessionStore sessionStore, ServletContext context) {
+        this.url = url;
+        this.sessionStore = sessionStore;
+        this.context = context;
+        this.maxRequests = config.getInt("BATCH_MAX_REQUESTS", 50);
+        this.maxSize = config.getLong("REQUEST_BODY_MAX_SIZE", 10L * 1024 * 1024);
+        this.reader = codec.reader();
+        this.writer = codec.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        int poolSize = config.getInt("BATCH_POOL_SIZE", Runtime.getRuntime().availableProcessors());
+        int queueCapacity = config.getInt("BATCH_QUEUE_CAPACITY", 256);
+        AtomicInteger count = new AtomicInteger();
+        // File bornée ; pleine, le thread du lot (bloqué de toute façon) exécute la sous-requête
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "framework-batch-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Batch si BATCH_URL est renseigné, sinon null
+     */
+    public static Batch fromConfig(ProjectConfig config, JsonCodec codec, SessionStore sessionStore, ServletContext context) {
+        String url = config.getProperty("BATCH_URL");
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        return new Batch(url.trim(), config, codec, sessionStore, context);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Lit le lot, lance les sous-requêtes puis écrit leurs réponses dans l'ordre.
+     * Lot invalide : HttpStatusException (405, 413, 415, 400) avant toute exécution.
+     */
+    public void handle(HttpServletRequest req, HttpServletResponse rep, Dispatcher dispatcher) throws IOException {
+        if (!"POST".equalsIgnoreCase(req.getMethod())) {
+            throw new HttpStatusException(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Méthode " + req.getMethod() + " non autorisée : " + url)
+                    .header("Allow", "POST");
+        }
+        JsonNode items = read(req);
+
+        // Avant le parallélisme : session du lot (ouverte seulement au premier accès) et copie des en-têtes
+        FrameworkSession session = FrameworkSession.of(req, rep, sessionStore);
+        Shared shared = new Shared(req, session);
+
+        List<CompletableFuture<SubResponse>> results = new ArrayList<>(items.size());
+        for (JsonNode item : items) {
+            SubResponse response = new SubResponse(rep, session);
+            SubRequest request;
+            try {
+                request = subRequest(shared, item);
+            } catch (HttpStatusException e) {
+                response.sendError(e.getStatus(), e.getMessage());
+                results.add(CompletableFuture.completedFuture(response));
+                continue;
+            }
+            results.add(CompletableFuture.supplyAsync(() -> {
+                run(dispatcher, request, response);
+                return response;
+            }, executor));
+        }
+
+        rep.setStatus(HttpServletResponse.SC_OK);
+        rep.setContentType("application/json;charset=UTF-8");
+        try (JsonGenerator gen = writer.createGenerator(rep.getOutputStream(), JsonEncoding.UTF8)) {
+            // Le flux appartient au conteneur : close() ne fait que vider le tampon
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartArray();
+            for (int i = 0; i < results.size(); i++) {
+                SubResponse response = results.get(i).join();
+                // Sous le verrou du lot : une sous-requête peut poser un cookie sur la même réponse
+                synchronized (session) {
+                    write(gen, response);
+                    // Ce qui est prêt part avant d'attendre la suite ; sinon on laisse le tampon
+                    // (et la compression) se remplir
+                    if (i + 1 < results.size() && !results.get(i + 1).isDone()) {
+                        gen.flush();
+                    }
+                }
+            }
+            gen.writeEndArray();
+        }
+        FrameworkSession.flush(req);
+    }
+
+    private JsonNode read(HttpServletRequest req) throws IOException {
+        // Content-Type obligatoire : un fetch "no-cors" d'un autre site n'en envoie pas
+        String contentType = req.getContentType();
+        if (contentType == null || !RequestBodies.isJson(contentType)) {
+            throw RequestBodies.unsupported(contentType);
+        }
+        if (maxSize >= 0 && req.getContentLengthLong() > maxSize) {
+            throw new HttpStatusException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Corps de requête trop volumineux (max " + maxSize + " octets)");
+        }
+
+        JsonNode items;
+        try {
+            items = reader.readTree(maxSize >= 0
+                    ? new RequestBodies.LimitedInputStream(req.getInputStream(), maxSize) : req.getInputStream());
+        } catch (JsonProcessingException e) {
+            throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Corps JSON invalide : " + e.getOriginalMessage());
+        }
+        if (items == null || !items.isArray()) {
+            throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Lot invalide : tableau JSON de sous-requêtes attendu");
+        }
+        if (items.size() > maxRequests) {
+            throw new HttpStatusException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Lot trop volumineux : " + items.size() + " sous-requêtes (max " + maxRequests + ")");
+        }
+        return items;
+    }
+
+    /**
+     * {"method", "path", "params", "body"} -> sous-requête ; path peut porter une query string
+     */
+    private SubRequest subRequest(Shared shared, JsonNode item) throws IOException {
+        JsonNode pathNode = item.get("path");
+        if (!item.isObject() || pathNode == null || !pathNode.isTextual() || !pathNode.asText().startsWith("/")) {
+            throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Sous-requête invalide : \"path\" absolu attendu");
+        }
+        String method = item.hasNonNull("method") ? item.get("method").asText().trim().toUpperCase(Locale.ROOT) : "GET";
+        String path = pathNode.asText();
+
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        int question = path.indexOf('?');
+        if (question >= 0) {
+            parseQuery(path.substring(question + 1), parameters);
+            path = path.substring(0, question);
+        }
+        JsonNode params = item.get("params");
+        if (params != null && params.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                List<String> values = new ArrayList<>();
+                if (field.getValue().isArray()) {
+                    field.getValue().forEach(value -> values.add(text(value)));
+                } else if (!field.getValue().isNull()) {
+                    values.add(text(field.getValue()));
+                }
+                parameters.put(field.getKey(), values.toArray(new String[0]));
+            }
+        }
+
+        byte[] body = item.hasNonNull("body") ? writer.writeValueAsBytes(item.get("body")) : null;
+        return new SubRequest(shared, method, path, Collections.unmodifiableMap(parameters), body);
+    }
+
+    private static String text(JsonNode value) {
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    private static void parseQuery(String query, Map<String, String[]> parameters) {
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            String[] previous = parameters.get(name);
+            String[] values = previous == null ? new String[1] : Arrays.copyOf(previous, previous.length + 1);
+            values[values.length - 1] = value;
+            parameters.put(name, values);
+        }
+    }
+
+    private void run(Dispatcher dispatcher, SubRequest request, SubResponse response) {
+        try {
+            dispatcher.dispatch(request.path, request, response);
+        } catch (Exception e) {
+            context.log("Lot : erreur sur " + request.getMethod() + " " + request.path, e);
+            response.clear();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Erreur Serveur: " + e.getMessage());
+        }
+    }
+
+    private static void write(JsonGenerator gen, SubResponse response) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("status", response.getStatus());
+        Map<String, List<String>> headers = response.getCapturedHeaders();
+        if (!headers.isEmpty()) {
+            gen.writeObjectFieldStart("headers");
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                List<String> values = header.getValue();
+                if (values.size() == 1) {
+                    gen.writeStringField(header.getKey(), values.get(0));
+                } else {
+                    gen.writeArrayFieldStart(header.getKey());
+                    for (String value : values) {
+                        gen.writeString(value);
+                    }
+                    gen.writeEndArray();
+                }
+            }
+            gen.writeEndObject();
+        }
+        gen.writeFieldName("body");
+
+        byte[] body = response.getBody();
+        int end = body.length;
+        while (end > 0 && Character.isWhitespace(body[end - 1])) {
+            end--;
+        }
+        String contentType = response.getContentType();
+        if (end == 0) {
+            String message = response.getErrorMessage();
+            if (message != null) {
+                gen.writeString(message);
+            } else {
+                gen.writeNull();
+            }
+        } else if (contentType != null && RequestBodies.isJson(contentType)) {
+            // Corps déjà sérialisé par la route : recopié sans être relu
+            gen.writeRawValue(new String(body, 0, end, StandardCharsets.UTF_8));
+        } else {
+            String encoding = response.getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+            gen.writeString(new String(body, 0, end, charset));
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Ce que les sous-requêtes lisent du lot, figé sur le thread du lot : en-têtes (hors HIDDEN_HEADERS)
+     * et cookies. Le reste de la requête du conteneur n'est lu que sous le verrou de la session du lot.
+     */
+    private static final class Shared {
+        final HttpServletRequest request;
+        final Object lock;
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final Cookie[] cookies;
+
+        Shared(HttpServletRequest request, Object lock) {
+            this.request = request;
+            this.lock = lock;
+            for (String name : Collections.list(request.getHeaderNames())) {
+                if (!SubRequest.hidden(name)) {
+                    headers.put(name, Collections.list(request.getHeaders(name)));
+                }
+            }
+            this.cookies = request.getCookies();
+        }
+    }
+
+    /**
+     * Sous-requête : méthode, chemin, paramètres et corps propres ; en-têtes, cookies et session
+     * du lot. Pas d'asynchrone (les routes CompletionStage attendent leur résultat) ni de vue.
+     */
+    private static final class SubRequest extends HttpServletRequestWrapper {
+        private final Shared shared;
+        private final String method;
+        private final String path;
+        private final Map<String, String[]> parameters;
+        private final byte[] body;
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        SubRequest(Shared shared, String method, String path, Map<String, String[]> parameters, byte[] body) {
+            super(shared.request);
+            this.shared = shared;
+            this.method = method;
+            this.path = path;
+            this.parameters = parameters;
+            this.body = body;
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return getContextPath() + path;
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            StringBuffer url = new StringBuffer();
+            url.append(getScheme()).append("://").append(getServerName()).append(':').append(getServerPort());
+            return url.append(getRequestURI());
+        }
+
+        @Override
+        public String getServletPath() {
+            return path;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getQueryString() {
+            return null;
+        }
+
+        // GESTION PARAMÈTRES
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values == null || values.length == 0 ? null : values[0];
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameters.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return parameters;
+        }
+
+        // GESTION CORPS
+
+        @Override
+        public String getContentType() {
+            return body != null ? "application/json;charset=UTF-8" : null;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return body != null ? "UTF-8" : null;
+        }
+
+        @Override
+        public int getContentLength() {
+            return body != null ? body.length : -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return getContentLength();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body != null ? body : new byte[0]);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        // GESTION EN-TÊTES
+
+        @Override
+        public String getHeader(String name) {
+            if (name.equalsIgnoreCase("Content-Type")) {
+                return getContentType();
+            }
+            if (name.equalsIgnoreCase("Content-Length")) {
+                return body != null ? String.valueOf(body.length) : null;
+            }
+            List<String> values = shared.headers.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (hidden(name)) {
+                String value = getHeader(name);
+                return Collections.enumeration(value != null ? List.of(value) : List.of());
+            }
+            return Collections.enumeration(shared.headers.getOrDefault(name, List.of()));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Set<String> names = new LinkedHashSet<>(shared.headers.keySet());
+            if (body != null) {
+                names.add("Content-Type");
+                names.add("Content-Length");
+            }
+            return Collections.enumeration(names);
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            if (hidden(name) || getHeader(name) == null) {
+                return -1;
+            }
+            synchronized (shared.lock) {
+                return super.getDateHeader(name);
+            }
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            String value = getHeader(name);
+            return value != null ? Integer.parseInt(value) : -1;
+        }
+
+        @Override
+        public Cookie[] getCookies() {
+            return shared.cookies != null ? shared.cookies.clone() : null;
+        }
+
+        static boolean hidden(String name) {
+            return HIDDEN_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+        }
+
+        // GESTION ATTRIBUTS : propres à la sous-requête, ceux du lot restent lisibles
+
+        @Override
+        public Object getAttribute(String name) {
+            Object value = attributes.get(name);
+            if (value != null) {
+                return value;
+            }
+            synchronized (shared.lock) {
+                return super.getAttribute(name);
+            }
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            Set<String> names;
+            synchronized (shared.lock) {
+                names = new LinkedHashSet<>(Collections.list(super.getAttributeNames()));
+            }
+            names.addAll(attributes.keySet());
+            return Collections.enumeration(names);
+        }
+
+        // GESTION SESSION ET IDENTITÉ : requête du conteneur, sous le verrou du lot
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            synchronized (shared.lock) {
+                return super.getSession(create);
+            }
+        }
+
+        @Override
+        public String getRequestedSessionId() {
+            synchronized (shared.lock) {
+                return super.getRequestedSessionId();
+            }
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            synchronized (shared.lock) {
+                return super.isRequestedSessionIdValid();
+            }
+        }
+
+        @Override
+        public String changeSessionId() {
+            synchronized (shared.lock) {
+                return super.changeSessionId();
+            }
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            synchronized (shared.lock) {
+                return super.getUserPrincipal();
+            }
+        }
+
+        @Override
+        public String getRemoteUser() {
+            synchronized (shared.lock) {
+                return super.getRemoteUser();
+            }
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            synchronized (shared.lock) {
+                return super.isUserInRole(role);
+            }
+        }
+
+        // GESTION ASYNCHRONE ET VUES : hors de portée d'un lot
+
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+
+        @Override
+        public boolean isAsyncStarted() {
+            return false;
+        }
+
+        @Override
+        public AsyncContext startAsync() {
+            throw new IllegalStateException("Asynchrone non supporté dans un lot");
+        }
+
+        @Override
+        public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+            throw new IllegalStateException("Asynchrone non supporté dans un lot");
+        }
+
+        @Override
+        public RequestDispatcher getRequestDispatcher(String view) {
+            throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Vue non supportée dans un lot : " + path);
+        }
+    }
+
+    /**
+     * Réponse d'une sous-requête : entièrement en mémoire, seuls les cookies rejoignent la réponse du lot
+     */
+    private static final class SubResponse extends CapturingResponseWrapper {
+        private final Object lock;
+        private String contentType;
+        private String characterEncoding;
+
+        SubResponse(HttpServletResponse response, Object lock) {
+            super(response);
+            this.lock = lock;
+        }
+
+        @Override
+        public void setContentType(String type) {
+            this.contentType = type;
+            if (type != null) {
+                int charset = type.toLowerCase(Locale.ROOT).indexOf("charset=");
+                if (charset >= 0) {
+                    characterEncoding = type.substring(charset + 8).trim();
+                }
+            }
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            this.characterEncoding = charset;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding;
+        }
+
+        @Override
+        public void setLocale(Locale locale) {
+            // Sans effet sur la réponse du lot
+        }
+
+        // Seuls les en-têtes de la sous-requête : ceux de la réponse du lot ne la concernent pas
+        @Override
+        public boolean containsHeader(String name) {
+            return getCapturedHeaders().containsKey(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            List<String> values = getCapturedHeaders().get(name);
+            return values == null ? null : values.get(0);
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            return getCapturedHeaders().getOrDefault(name, List.of());
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return new ArrayList<>(getCapturedHeaders().keySet());
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            // Réponse du lot partagée entre threads ; un cookie posé après le début de l'envoi est perdu
+            synchronized (lock) {
+                ((HttpServletResponse) getResponse()).addCookie(cookie);
+            }
+        }
+
+        @Override
+        public void reset() {
+            clear();
+            contentType = null;
+            characterEncoding = null;
+        }
+    }
+}
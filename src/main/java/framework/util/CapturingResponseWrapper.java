@@ -0,0 +1,292 @@
+package framework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse tampon : statut, en-têtes et corps restent en mémoire au lieu de partir au client.
+ * Sert au cache de réponses, puis à la réécriture de la réponse réelle (replay).
+ * Le type de contenu, l'encodage et les cookies sont transmis directement à la réponse réelle.
+ */
+public class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private int status = SC_OK;
+    private String errorMessage;
+    private boolean error;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CapturingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    // GESTION STATUT
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        this.status = sc;
+        this.errorMessage = msg;
+        this.error = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        this.status = SC_FOUND;
+        setHeader("Location", location);
+    }
+
+    // GESTION EN-TÊTES
+
+    @Override
+    public void setHeader(String name, String value) {
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name, values);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name) || super.containsHeader(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? super.getHeader(name) : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? super.getHeaders(name) : values;
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        List<String> names = new ArrayList<>(headers.keySet());
+        for (String name : super.getHeaderNames()) {
+            if (!headers.containsKey(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // GESTION CORPS
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() a déjà été appelé");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    buffer.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    buffer.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() a déjà été appelé");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(buffer, charset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // Recalculée à la réécriture
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // Recalculée à la réécriture
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // Tampon illimité
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        buffer.reset();
+    }
+
+    /**
+     * Réinitialise la seule capture : super.reset() viderait les en-têtes et le statut de la réponse
+     * réelle, et l'état des enveloppes qu'elle contient (compression, HEAD)
+     */
+    @Override
+    public void reset() {
+        clear();
+    }
+
+    /**
+     * Oublie le statut, les en-têtes et le corps capturés, sans toucher à la réponse réelle
+     */
+    protected void clear() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        error = false;
+        errorMessage = null;
+    }
+
+    /**
+     * Corps capturé (le writer est vidé au préalable)
+     */
+    public byte[] getBody() {
+        flushBuffer();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * En-têtes posés sur cette réponse (sans ceux de la réponse réelle)
+     */
+    public Map<String, List<String>> getCapturedHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Message passé à sendError(), s'il y en a un
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Réponse capturable telle quelle : 200 sans sendError
+     */
+    public boolean isCacheable() {
+        return status == SC_OK && !error;
+    }
+
+    public ResponseCache.Entry toEntry(long ttlMillis) {
+        return toEntry(ttlMillis, null);
+    }
+
+    /**
+     * @param compression si non null, l'entrée garde aussi sa variante gzip
+     */
+    public ResponseCache.Entry toEntry(long ttlMillis, Compression compression) {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        headers.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        return new ResponseCache.Entry(status, getContentType(), copy, getBody(), ttlMillis, compression);
+    }
+
+    /**
+     * Réécrit la réponse capturée sur la réponse réelle
+     */
+    public void replay() throws IOException {
+        HttpServletResponse target = (HttpServletResponse) getResponse();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                target.addHeader(header.getKey(), value);
+            }
+        }
+        if (error) {
+            if (errorMessage == null) {
+                target.sendError(status);
+            } else {
+                target.sendError(status, errorMessage);
+            }
+            return;
+        }
+        byte[] body = getBody();
+        target.setStatus(status);
+        target.setContentLength(body.length);
+        target.getOutputStream().write(body);
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+    }
+}
@@ -0,0 +1,376 @@
+package framework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse compressée à la volée avec le codage négocié (gzip / deflate).
+ * Les premiers octets restent en tampon jusqu'à COMPRESSION_MIN_SIZE : en dessous,
+ * ou si le type n'est pas compressible, le corps part tel quel. Au-delà, il est compressé
+ * au fil de l'écriture, sans être gardé en entier en mémoire.
+ *
+ * finish() termine le flux (fin deflate + trailer gzip) : FrontServlet l'appelle en fin
+ * de requête, ou à la complétion pour une route asynchrone.
+ */
+public class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private enum State { BUFFERING, COMPRESSING, PASSTHROUGH, FINISHED }
+
+    private final Compression compression;
+    private final String encoding;
+    private final ByteArrayOutputStream buffer;
+    private State state = State.BUFFERING;
+    private long declaredLength = -1;
+    private Deflater deflater;
+    private CRC32 crc;
+    private long uncompressedSize;
+    private byte[] chunk;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CompressingResponseWrapper(HttpServletResponse response, Compression compression, String encoding) {
+        super(response);
+        this.compression = compression;
+        this.encoding = encoding;
+        this.buffer = new ByteArrayOutputStream(Math.min(compression.getMinSize(), 8192));
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Corps déjà compressé par l'appelant (entrée de cache) : retourne le codage à annoncer
+     * si ce corps doit être servi compressé, et n'applique plus aucune compression ensuite
+     */
+    public String precompressed(String contentType, int length) {
+        if (state != State.BUFFERING) {
+            return null;
+        }
+        boolean compressible = compression.isCompressible(contentType);
+        if (compressible) {
+            Compression.addVary((HttpServletResponse) getResponse());
+        }
+        state = State.PASSTHROUGH;
+        return compressible && length >= compression.getMinSize() ? encoding : null;
+    }
+
+    /**
+     * Plus de compression pour cette réponse (ex: vue rendue par le conteneur après dispatch)
+     */
+    public void passThrough() throws IOException {
+        if (state == State.BUFFERING) {
+            decide(false);
+        }
+    }
+
+    // GESTION EN-TÊTES : la longueur annoncée n'est transmise que si le corps part tel quel
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (state == State.BUFFERING) {
+            declaredLength = len;
+        } else if (state == State.PASSTHROUGH) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(value == null ? -1 : Long.parseLong(value.trim()));
+            return;
+        }
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value.trim()));
+            return;
+        }
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        abandonBuffer();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        abandonBuffer();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        abandonBuffer();
+        super.sendRedirect(location);
+    }
+
+    private void abandonBuffer() {
+        if (state == State.BUFFERING) {
+            buffer.reset();
+            state = State.PASSTHROUGH;
+        }
+    }
+
+    // GESTION CORPS
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() a déjà été appelé");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    append(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    flushStream();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    finish();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() a déjà été appelé");
+        }
+        if (writer == null) {
+            String characterEncoding = getCharacterEncoding();
+            Charset charset = characterEncoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(characterEncoding);
+            ServletOutputStream stream = getOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(stream, charset));
+        }
+        return writer;
+    }
+
+    private void append(byte[] b, int off, int len) throws IOException {
+        switch (state) {
+            case BUFFERING:
+                buffer.write(b, off, len);
+                if (buffer.size() >= compression.getMinSize()) {
+                    decide(true);
+                }
+                break;
+            case COMPRESSING:
+                deflate(b, off, len);
+                break;
+            case PASSTHROUGH:
+                getResponse().getOutputStream().write(b, off, len);
+                break;
+            default:
+                throw new IOException("Réponse déjà terminée");
+        }
+    }
+
+    /**
+     * Choix définitif : compression si le corps atteint le seuil et que la réponse s'y prête
+     */
+    private void decide(boolean largeEnough) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        boolean compressible = compression.isCompressible(response.getContentType());
+        if (compressible) {
+            Compression.addVary(response);
+        }
+        int status = response.getStatus();
+        boolean compress = largeEnough && compressible
+                && !response.containsHeader("Content-Encoding")
+                && status != SC_NO_CONTENT && status != SC_PARTIAL_CONTENT && status != SC_NOT_MODIFIED;
+
+        if (compress) {
+            state = State.COMPRESSING;
+            response.setHeader("Content-Encoding", encoding);
+            String etag = response.getHeader("ETag");
+            if (etag != null) {
+                response.setHeader("ETag", Compression.variantEtag(etag, encoding));
+            }
+            deflater = compression.acquire(encoding);
+            chunk = new byte[8192];
+            if (Compression.GZIP.equals(encoding)) {
+                crc = new CRC32();
+                response.getOutputStream().write(Compression.GZIP_HEADER);
+            }
+            byte[] pending = buffer.toByteArray();
+            buffer.reset();
+            deflate(pending, 0, pending.length);
+        } else {
+            state = State.PASSTHROUGH;
+            if (declaredLength >= 0) {
+                response.setContentLengthLong(declaredLength);
+            }
+            if (buffer.size() > 0) {
+                buffer.writeTo(response.getOutputStream());
+                buffer.reset();
+            }
+        }
+    }
+
+    private void deflate(byte[] b, int off, int len) throws IOException {
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+        uncompressedSize += len;
+        deflater.setInput(b, off, len);
+        ServletOutputStream target = getResponse().getOutputStream();
+        while (!deflater.needsInput()) {
+            int n = deflater.deflate(chunk);
+            target.write(chunk, 0, n);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            // Le writer vide le flux, qui appelle flushStream()
+            writer.flush();
+        } else {
+            flushStream();
+        }
+        super.flushBuffer();
+    }
+
+    private void flushStream() throws IOException {
+        if (state == State.BUFFERING) {
+            // Flush explicite avant le seuil : le corps part tel quel
+            decide(false);
+        } else if (state == State.COMPRESSING) {
+            ServletOutputStream target = getResponse().getOutputStream();
+            int n;
+            while ((n = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH)) > 0) {
+                target.write(chunk, 0, n);
+            }
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return state != State.BUFFERING || super.isCommitted();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        buffer.reset();
+        if (state == State.COMPRESSING) {
+            // Corps compressé encore dans le tampon du conteneur : on repart d'un flux neuf
+            deflater.reset();
+            uncompressedSize = 0;
+            if (crc != null) {
+                crc.reset();
+                try {
+                    getResponse().getOutputStream().write(Compression.GZIP_HEADER);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        // Lève IllegalStateException si la réponse réelle est déjà partie
+        super.reset();
+        buffer.reset();
+        declaredLength = -1;
+        if (state == State.COMPRESSING) {
+            compression.release(encoding, deflater);
+            deflater = null;
+            crc = null;
+            uncompressedSize = 0;
+        }
+        if (state != State.FINISHED) {
+            state = State.BUFFERING;
+        }
+        // Comme le conteneur : après reset, getWriter() ou getOutputStream() au choix
+        writer = null;
+        outputStream = null;
+    }
+
+    /**
+     * Termine la réponse : corps en tampon envoyé tel quel, ou fin du flux compressé.
+     * Sans effet si déjà appelé.
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        switch (state) {
+            case BUFFERING:
+                decide(false);
+                state = State.FINISHED;
+                break;
+            case COMPRESSING:
+                state = State.FINISHED;
+                try {
+                    ServletOutputStream target = getResponse().getOutputStream();
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(chunk);
+                        target.write(chunk, 0, n);
+                    }
+                    if (crc != null) {
+                        ByteArrayOutputStream trailer = new ByteArrayOutputStream(8);
+                        Compression.writeTrailer(trailer, crc.getValue(), uncompressedSize);
+                        trailer.writeTo(target);
+                    }
+                } finally {
+                    compression.release(encoding, deflater);
+                    deflater = null;
+                }
+                break;
+            default:
+                state = State.FINISHED;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package framework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Compression des réponses (gzip / deflate) négociée sur Accept-Encoding.
+ * Paramètres de app.properties :
+ *   COMPRESSION_ENABLED      active la compression (défaut : false)
+ *   COMPRESSION_MIN_SIZE     taille minimale du corps en octets (défaut : 1024)
+ *   COMPRESSION_MIME_TYPES   types compressibles, séparés par des virgules (défaut : texte, JSON, JS, XML, SVG)
+ *   COMPRESSION_LEVEL        niveau zlib de 1 à 9 (défaut : 6)
+ *
+ * Un Deflater par thread et par format : l'état natif zlib est réutilisé (reset) au lieu
+ * d'être alloué à chaque réponse. Un Deflater emprunté est retiré de son thread jusqu'à
+ * sa restitution, ce qui reste sûr si la réponse se termine sur un autre thread (asynchrone).
+ */
+public class Compression {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private static final String DEFAULT_MIME_TYPES = "text/html,text/plain,text/css,text/xml,text/csv,text/javascript,"
+            + "application/json,application/javascript,application/xml,image/svg+xml";
+
+    // En-tête gzip minimal (RFC 1952) : méthode deflate, sans nom ni date, OS inconnu
+    static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private final int minSize;
+    private final int level;
+    private final Set<String> mimeTypes = new HashSet<>();
+    private final ThreadLocal<Deflater> gzipDeflaters = new ThreadLocal<>();
+    private final ThreadLocal<Deflater> deflateDeflaters = new ThreadLocal<>();
+
+    public Compression(ProjectConfig config) {
+        this.minSize = config.getInt("COMPRESSION_MIN_SIZE", 1024);
+        this.level = config.getInt("COMPRESSION_LEVEL", 6);
+        List<String> configured = config.getList("COMPRESSION_MIME_TYPES");
+        for (String mimeType : configured.isEmpty() ? ProjectConfig.parseList(DEFAULT_MIME_TYPES) : configured) {
+            mimeTypes.add(mimeType.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Compression si COMPRESSION_ENABLED=true, sinon null
+     */
+    public static Compression fromConfig(ProjectConfig config) {
+        return config.getBoolean("COMPRESSION_ENABLED", false) ? new Compression(config) : null;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Codage retenu pour la requête : gzip de préférence, puis deflate ; null si aucun n'est accepté
+     */
+    public String negotiate(HttpServletRequest req) {
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        for (String item : acceptEncoding.split(",")) {
+            int semicolon = item.indexOf(';');
+            String coding = (semicolon < 0 ? item : item.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            float quality = semicolon < 0 ? 1 : quality(item.substring(semicolon + 1));
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals(DEFLATE)) {
+                deflate = quality;
+            } else if (coding.equals("*")) {
+                any = quality;
+            }
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    private static float quality(String parameters) {
+        String value = parameters.trim();
+        if (!value.startsWith("q=")) {
+            return 1;
+        }
+        try {
+            return Float.parseFloat(value.substring(2).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Type de contenu compressible (paramètres comme charset ignorés) ; les suffixes +json et +xml le sont toujours
+     */
+    public boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        String mimeType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+        return mimeTypes.contains(mimeType) || mimeType.endsWith("+json") || mimeType.endsWith("+xml");
+    }
+
+    /**
+     * Emprunte le Deflater du thread (un neuf s'il est déjà emprunté)
+     */
+    Deflater acquire(String encoding) {
+        ThreadLocal<Deflater> pool = GZIP.equals(encoding) ? gzipDeflaters : deflateDeflaters;
+        Deflater deflater = pool.get();
+        if (deflater == null) {
+            // gzip : flux deflate brut encadré par nos soins ; deflate HTTP : format zlib
+            return new Deflater(level, GZIP.equals(encoding));
+        }
+        pool.set(null);
+        return deflater;
+    }
+
+    void release(String encoding, Deflater deflater) {
+        ThreadLocal<Deflater> pool = GZIP.equals(encoding) ? gzipDeflaters : deflateDeflaters;
+        deflater.reset();
+        if (pool.get() == null) {
+            pool.set(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Compression en une fois (corps déjà en mémoire, ex: entrée de cache)
+     */
+    public byte[] compress(byte[] body, String encoding) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4 + 64);
+        boolean gzip = GZIP.equals(encoding);
+        if (gzip) {
+            output.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        }
+
+        Deflater deflater = acquire(encoding);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                output.write(chunk, 0, n);
+            }
+        } finally {
+            release(encoding, deflater);
+        }
+
+        if (gzip) {
+            CRC32 crc = new CRC32();
+            crc.update(body, 0, body.length);
+            writeTrailer(output, crc.getValue(), body.length);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Fin de flux gzip : CRC32 puis taille non compressée modulo 2^32, en petit-boutiste
+     */
+    static void writeTrailer(ByteArrayOutputStream output, long crc, long size) {
+        byte[] trailer = new byte[8];
+        for (int i = 0; i < 4; i++) {
+            trailer[i] = (byte) (crc >>> (8 * i));
+            trailer[4 + i] = (byte) (size >>> (8 * i));
+        }
+        output.write(trailer, 0, trailer.length);
+    }
+
+    /**
+     * ETag propre à la variante compressée : "abc" -> "abc-gzip"
+     */
+    public static String variantEtag(String etag, String encoding) {
+        if (etag == null || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + '-' + encoding + '"';
+    }
+
+    /**
+     * Ajoute Accept-Encoding à Vary sans écraser un Vary existant
+     */
+    public static void addVary(HttpServletResponse rep) {
+        for (String vary : rep.getHeaders("Vary")) {
+            if (vary.toLowerCase(Locale.ROOT).contains("accept-encoding") || vary.trim().equals("*")) {
+                return;
+            }
+        }
+        rep.addHeader("Vary", "Accept-Encoding");
+    }
+}
@@ -0,0 +1,44 @@
+package framework.util;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Sessions gérées par le conteneur (HttpSession), comportement historique du framework
+ */
+public class ContainerSessionStore implements SessionStore {
+
+    @Override
+    public Handle open(HttpServletRequest req, HttpServletResponse rep, boolean create) {
+        HttpSession session = req.getSession(create);
+        return session == null ? null : handle(session);
+    }
+
+    static Handle handle(HttpSession session) {
+        return new Handle() {
+            @Override
+            public Object load(String key) {
+                return session.getAttribute(key);
+            }
+
+            @Override
+            public void store(Map<String, Object> changes) {
+                for (Map.Entry<String, Object> change : changes.entrySet()) {
+                    if (change.getValue() == null) {
+                        session.removeAttribute(change.getKey());
+                    } else {
+                        session.setAttribute(change.getKey(), change.getValue());
+                    }
+                }
+            }
+
+            @Override
+            public void invalidate() {
+                session.invalidate();
+            }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package framework.util;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import framework.annotation.ControllerAnnot;
+
+/**
+ * Invocation d'une méthode de contrôleur résolue au démarrage, à la place de
+ * newInstance() + Method.invoke à chaque requête.
+ *
+ * Pour une méthode d'instance d'au plus MAX_DIRECT_ARITY paramètres, LambdaMetafactory génère
+ * une classe qui appelle la méthode directement (casts et unboxing compris) : l'appel est une
+ * invocation d'interface ordinaire, que le JIT inline, sans tableau ni adaptation à l'exécution.
+ * Sinon (méthode statique, plus de paramètres, accès refusé), repli sur un MethodHandle étalé.
+ */
+public class ControllerInvoker {
+
+    static final int MAX_DIRECT_ARITY = 5;
+
+    private static final MethodType GENERIC_TARGET = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final Class<?>[] CALLS = { Call0.class, Call1.class, Call2.class, Call3.class, Call4.class, Call5.class };
+    private static final Class<?>[] VOID_CALLS = { VoidCall0.class, VoidCall1.class, VoidCall2.class, VoidCall3.class, VoidCall4.class, VoidCall5.class };
+
+    private final Object direct;
+    private final int arity;
+    private final boolean returnsVoid;
+    private final MethodHandle target;
+    private final MethodHandle constructor;
+    private final Object singleton;
+
+    public ControllerInvoker(Class<?> clazz, Method method, ControllerAnnot.Scope scope) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        this.arity = method.getParameterCount();
+        this.returnsVoid = method.getReturnType() == void.class;
+
+        trySetAccessible(method);
+        MethodHandle handle = lookup.unreflect(method);
+        this.direct = Modifier.isStatic(method.getModifiers()) ? null : spin(clazz, method);
+        if (direct != null) {
+            this.target = null;
+        } else {
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            // (instance, Object[]) -> Object, quelle que soit la signature d'origine
+            this.target = handle.asSpreader(Object[].class, arity).asType(GENERIC_TARGET);
+        }
+
+        Constructor<?> ctor = clazz.getDeclaredConstructor();
+        trySetAccessible(ctor);
+        this.constructor = lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        this.singleton = scope == ControllerAnnot.Scope.SINGLETON ? newInstance() : null;
+    }
+
+    /**
+     * Invoque la méthode sur l'instance du contrôleur (partagée ou nouvelle selon le scope)
+     */
+    public Object invoke(Object[] args) throws Exception {
+        Object instance = singleton != null ? singleton : newInstance();
+        if (direct != null) {
+            return returnsVoid ? invokeVoid(instance, args) : invokeDirect(instance, args);
+        }
+        try {
+            return (Object) target.invokeExact(instance, args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    boolean isDirect() {
+        return direct != null;
+    }
+
+    private Object invokeDirect(Object instance, Object[] args) {
+        switch (arity) {
+            case 0: return ((Call0) direct).call(instance);
+            case 1: return ((Call1) direct).call(instance, args[0]);
+            case 2: return ((Call2) direct).call(instance, args[0], args[1]);
+            case 3: return ((Call3) direct).call(instance, args[0], args[1], args[2]);
+            case 4: return ((Call4) direct).call(instance, args[0], args[1], args[2], args[3]);
+            default: return ((Call5) direct).call(instance, args[0], args[1], args[2], args[3], args[4]);
+        }
+    }
+
+    private Object invokeVoid(Object instance, Object[] args) {
+        switch (arity) {
+            case 0: ((VoidCall0) direct).call(instance); break;
+            case 1: ((VoidCall1) direct).call(instance, args[0]); break;
+            case 2: ((VoidCall2) direct).call(instance, args[0], args[1]); break;
+            case 3: ((VoidCall3) direct).call(instance, args[0], args[1], args[2]); break;
+            case 4: ((VoidCall4) direct).call(instance, args[0], args[1], args[2], args[3]); break;
+            default: ((VoidCall5) direct).call(instance, args[0], args[1], args[2], args[3], args[4]); break;
+        }
+        return null;
+    }
+
+    /**
+     * Implémentation générée de CallN / VoidCallN pour la méthode, ou null si LambdaMetafactory la refuse
+     */
+    private static Object spin(Class<?> clazz, Method method) {
+        int arity = method.getParameterCount();
+        if (arity > MAX_DIRECT_ARITY) {
+            return null;
+        }
+        try {
+            // Lookup du contrôleur : la classe générée y a le même accès que le code du contrôleur
+            MethodHandles.Lookup caller = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            MethodHandle impl = caller.unreflect(method);
+            boolean returnsVoid = method.getReturnType() == void.class;
+
+            Class<?> callType = (returnsVoid ? VOID_CALLS : CALLS)[arity];
+            MethodType erased = MethodType.genericMethodType(arity + 1);
+            // Types réels, primitifs en enveloppe : la classe générée fait les casts et l'unboxing
+            MethodType instantiated = impl.type().wrap();
+            if (returnsVoid) {
+                erased = erased.changeReturnType(void.class);
+                instantiated = instantiated.changeReturnType(void.class);
+            }
+            return LambdaMetafactory.metafactory(caller, "call", MethodType.methodType(callType),
+                    erased, impl, instantiated).getTarget().invoke();
+        } catch (Throwable t) {
+            // Module ou chargeur qui refuse l'accès privé, méthode héritée inaccessible : MethodHandle
+            return null;
+        }
+    }
+
+    private Object newInstance() throws ReflectiveOperationException {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error | ReflectiveOperationException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ReflectiveOperationException("Instanciation du contrôleur impossible", t);
+        }
+    }
+
+    private static void trySetAccessible(AccessibleObject member) {
+        try {
+            member.setAccessible(true);
+        } catch (RuntimeException e) {
+            // Module fermé : on laisse unreflect appliquer les règles d'accès normales
+        }
+    }
+
+    // Formes d'appel générées par LambdaMetafactory : instance puis arguments
+
+    public interface Call0 { Object call(Object instance); }
+    public interface Call1 { Object call(Object instance, Object a0); }
+    public interface Call2 { Object call(Object instance, Object a0, Object a1); }
+    public interface Call3 { Object call(Object instance, Object a0, Object a1, Object a2); }
+    public interface Call4 { Object call(Object instance, Object a0, Object a1, Object a2, Object a3); }
+    public interface Call5 { Object call(Object instance, Object a0, Object a1, Object a2, Object a3, Object a4); }
+
+    public interface VoidCall0 { void call(Object instance); }
+    public interface VoidCall1 { void call(Object instance, Object a0); }
+    public interface VoidCall2 { void call(Object instance, Object a0, Object a1); }
+    public interface VoidCall3 { void call(Object instance, Object a0, Object a1, Object a2); }
+    public interface VoidCall4 { void call(Object instance, Object a0, Object a1, Object a2, Object a3); }
+    public interface VoidCall5 { void call(Object instance, Object a0, Object a1, Object a2, Object a3, Object a4); }
+}
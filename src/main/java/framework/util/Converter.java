@@ -0,0 +1,14 @@
+package framework.util;
+
+/**
+ * Conversion d'une valeur texte (paramètre de requête, variable de chemin, champ de formulaire)
+ * vers un type cible. Les convertisseurs s'enregistrent dans Converters, par code
+ * ou via la clé CONVERTERS de app.properties.
+ *
+ * Contrat : ne jamais lever d'exception pour une valeur mal formée, renvoyer null.
+ */
+@FunctionalInterface
+public interface Converter<T> {
+
+    T convert(String value);
+}
@@ -0,0 +1,292 @@
+package framework.util;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des convertisseurs texte -> type, indexé par classe cible.
+ * Le convertisseur d'un paramètre ou d'un champ est résolu une fois (au démarrage
+ * ou à la première liaison), puis appelé directement.
+ *
+ * Aucun convertisseur fourni ne s'appuie sur une exception pour rejeter une valeur :
+ * la forme du texte est vérifiée avant l'appel aux méthodes parse().
+ */
+public class Converters {
+
+    private static final Map<Class<?>, Converter<?>> CONVERTERS = new ConcurrentHashMap<>();
+
+    static {
+        register(String.class, value -> value);
+        register(Integer.class, value -> {
+            Long parsed = parseLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            return parsed == null ? null : parsed.intValue();
+        });
+        register(Long.class, value -> parseLong(value, Long.MIN_VALUE, Long.MAX_VALUE));
+        register(Short.class, value -> {
+            Long parsed = parseLong(value, Short.MIN_VALUE, Short.MAX_VALUE);
+            return parsed == null ? null : parsed.shortValue();
+        });
+        register(Byte.class, value -> {
+            Long parsed = parseLong(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            return parsed == null ? null : parsed.byteValue();
+        });
+        register(Double.class, value -> isDecimal(value) ? Double.parseDouble(value) : null);
+        register(Float.class, value -> isDecimal(value) ? Float.parseFloat(value) : null);
+        register(BigDecimal.class, value -> isDecimal(value) ? new BigDecimal(value) : null);
+        register(BigInteger.class, value -> isInteger(value) ? new BigInteger(value) : null);
+        register(Boolean.class, Converters::parseBoolean);
+        register(Character.class, value -> value.length() == 1 ? value.charAt(0) : null);
+        register(UUID.class, value -> isUuid(value) ? UUID.fromString(value) : null);
+        register(LocalDate.class, temporal(DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from));
+        register(LocalDateTime.class, temporal(DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::from));
+        register(LocalTime.class, temporal(DateTimeFormatter.ISO_LOCAL_TIME, LocalTime::from));
+        register(OffsetDateTime.class, temporal(DateTimeFormatter.ISO_OFFSET_DATE_TIME, OffsetDateTime::from));
+        register(ZonedDateTime.class, temporal(DateTimeFormatter.ISO_ZONED_DATE_TIME, ZonedDateTime::from));
+        register(Instant.class, temporal(DateTimeFormatter.ISO_INSTANT, Instant::from));
+    }
+
+    /**
+     * Enregistre (ou remplace) le convertisseur d'un type
+     */
+    public static <T> void register(Class<T> type, Converter<? extends T> converter) {
+        CONVERTERS.put(wrap(type), converter);
+    }
+
+    /**
+     * Convertisseur du type (primitifs et enums compris), ou null si le type n'est pas scalaire
+     */
+    public static Converter<?> forType(Class<?> type) {
+        Class<?> boxed = wrap(type);
+        Converter<?> converter = CONVERTERS.get(boxed);
+        if (converter == null && boxed.isEnum()) {
+            converter = CONVERTERS.computeIfAbsent(boxed, Converters::enumConverter);
+        }
+        return converter;
+    }
+
+    /**
+     * Conversion ponctuelle ; null si le type n'est pas géré ou si la valeur est invalide
+     */
+    public static Object convert(String value, Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        Converter<?> converter = forType(type);
+        return converter == null ? null : converter.convert(value);
+    }
+
+    /**
+     * Enregistre les convertisseurs listés par la clé CONVERTERS de app.properties.
+     * Chaque classe implémente Converter<T> avec un T concret et possède un constructeur sans argument.
+     */
+    public static void registerFromConfig(ProjectConfig config) throws ReflectiveOperationException {
+        for (String className : config.getList("CONVERTERS")) {
+            Class<?> clazz = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            Class<?> target = targetType(clazz);
+            if (target == null) {
+                throw new IllegalArgumentException("Type cible introuvable pour le convertisseur " + className);
+            }
+            CONVERTERS.put(wrap(target), (Converter<?>) clazz.getDeclaredConstructor().newInstance());
+        }
+    }
+
+    /**
+     * Entier décimal signé, sans dépassement de [min, max] ; null sinon
+     */
+    static Long parseLong(String value, long min, long max) {
+        int length = value.length();
+        if (length == 0) {
+            return null;
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            if (length == 1) {
+                return null;
+            }
+            negative = first == '-';
+            i = 1;
+        }
+
+        // Accumulation en négatif, comme Long.parseLong, pour couvrir Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyMin) {
+                return null;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return null;
+            }
+            result -= digit;
+        }
+
+        long parsed = negative ? result : -result;
+        return parsed < min || parsed > max ? null : parsed;
+    }
+
+    static boolean isInteger(String value) {
+        int length = value.length();
+        int i = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (i == length) {
+            return false;
+        }
+        for (; i < length; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nombre décimal : [+-]chiffres[.chiffres][(e|E)[+-]chiffres]
+     */
+    static boolean isDecimal(String value) {
+        int length = value.length();
+        int i = 0;
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            // Au-delà de 9 chiffres, l'exposant ne tient plus dans un int (BigDecimal)
+            if (exponentDigits == 0 || exponentDigits > 9) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("on")) {
+            return Boolean.TRUE;
+        }
+        if (value.equalsIgnoreCase("false") || value.equalsIgnoreCase("off")) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    static <T> Converter<T> temporal(DateTimeFormatter formatter, TemporalQuery<T> query) {
+        return value -> {
+            ParsePosition position = new ParsePosition(0);
+            if (formatter.parseUnresolved(value, position) == null
+                    || position.getErrorIndex() >= 0 || position.getIndex() != value.length()) {
+                return null;
+            }
+            try {
+                return formatter.parse(value, query);
+            } catch (DateTimeException e) {
+                // Forme correcte mais valeur impossible (31 février...) : cas rare
+                return null;
+            }
+        };
+    }
+
+    private static boolean isUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Converter<?> enumConverter(Class<?> enumType) {
+        Map<String, Object> exact = new HashMap<>();
+        Map<String, Object> ignoreCase = new HashMap<>();
+        for (Object constant : enumType.getEnumConstants()) {
+            String name = ((Enum<?>) constant).name();
+            exact.put(name, constant);
+            ignoreCase.putIfAbsent(name.toUpperCase(Locale.ROOT), constant);
+        }
+        return value -> {
+            Object constant = exact.get(value);
+            return constant != null ? constant : ignoreCase.get(value.toUpperCase(Locale.ROOT));
+        };
+    }
+
+    private static Class<?> targetType(Class<?> clazz) {
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Type type : current.getGenericInterfaces()) {
+                if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Converter.class) {
+                    Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+                    if (argument instanceof Class) {
+                        return (Class<?>) argument;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) return type;
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == double.class) return Double.class;
+        if (type == float.class) return Float.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == char.class) return Character.class;
+        if (type == byte.class) return Byte.class;
+        if (type == short.class) return Short.class;
+        return type;
+    }
+}
@@ -1,46 +1,53 @@
 package framework.util;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 public class Convertor
 {
+    private static final Converter<LocalDateTime> LOCAL_DATE_TIME = Converters.temporal(
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::from);
+    private static final Converter<LocalDate> LOCAL_DATE = Converters.temporal(
+            DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from);
+
+    /**
+     * Devine le type d'une valeur dont la cible est inconnue (Map<String, Object[]>, champ Object).
+     * Quand le type cible est connu, utiliser Converters.forType(type).
+     * Chaque essai vérifie la forme du texte avant de le convertir : aucune exception levée.
+     */
     public static Object detectAndCastValue(String value) {
         if (value == null) {
             return null;
         }
 
         // Gestion des booléens (true, false, on, off)
-        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("on")) {
-            return true;
-        }
-        if (value.equalsIgnoreCase("false") || value.equalsIgnoreCase("off")) {
-            return false;
+        Boolean bool = Converters.parseBoolean(value);
+        if (bool != null) {
+            return bool;
         }
 
-        try {
-            // Gestion des nombres entiers
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            // Ignorer si ce n'est pas un entier
+        // Gestion des nombres entiers
+        Long integer = Converters.parseLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (integer != null) {
+            return integer.intValue();
         }
 
-        try {
-            // Gestion des nombres décimaux
+        // Gestion des nombres décimaux
+        if (Converters.isDecimal(value)) {
             return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            // Ignorer si ce n'est pas un double
-        }
-
-        try {
-            // Gestion des dates et heures (ISO 8601)
-            return java.time.LocalDateTime.parse(value);
-        } catch (java.time.format.DateTimeParseException e) {
-            // Ignorer si ce n'est pas une date et heure valide
         }
 
-        try {
-            // Gestion des dates simples (ISO 8601)
-            return java.time.LocalDate.parse(value);
-        } catch (java.time.format.DateTimeParseException e) {
-            // Ignorer si ce n'est pas une date valide
+        // Gestion des dates et heures puis des dates simples (ISO 8601) : "aaaa-mm-jj..." uniquement
+        if (value.length() >= 10 && value.charAt(4) == '-') {
+            LocalDateTime dateTime = LOCAL_DATE_TIME.convert(value);
+            if (dateTime != null) {
+                return dateTime;
+            }
+            LocalDate date = LOCAL_DATE.convert(value);
+            if (date != null) {
+                return date;
+            }
         }
 
         // Retourne la chaîne brute si aucun type ne correspond
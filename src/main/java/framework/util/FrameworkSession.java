@@ -1,32 +1,140 @@
 package framework.util;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
+/**
+ * Session vue par les contrôleurs, adossée à un SessionStore.
+ * Une instance par requête : la session n'est ouverte qu'au premier accès (création au premier put),
+ * chaque attribut n'est chargé qu'une fois, et flush() n'écrit que les attributs modifiés.
+ * Les méthodes sont synchronisées : les sous-requêtes d'un lot (Batch) partagent l'instance du lot.
+ */
 public class FrameworkSession {
-    
-    private HttpSession session;
 
+    private static final String ATTRIBUTE = FrameworkSession.class.getName();
+
+    private final SessionStore store;
+    private final HttpServletRequest req;
+    private final HttpServletResponse rep;
+    private SessionStore.Handle handle;
+    private boolean opened;
+
+    // Valeurs lues ou écrites pendant la requête (null = absent)
+    private final Map<String, Object> values = new HashMap<>();
+    // Modifications à écrire (null = suppression)
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    /**
+     * Accès direct à une HttpSession existante (écritures immédiates, sans SessionStore)
+     */
     public FrameworkSession(HttpSession session) {
-        this.session = session;
+        this.store = null;
+        this.req = null;
+        this.rep = null;
+        this.handle = session == null ? null : ContainerSessionStore.handle(session);
+        this.opened = true;
+    }
+
+    private FrameworkSession(SessionStore store, HttpServletRequest req, HttpServletResponse rep) {
+        this.store = store;
+        this.req = req;
+        this.rep = rep;
+    }
+
+    /**
+     * Session de la requête, partagée par tous les paramètres et contrôles de cette requête
+     */
+    public static FrameworkSession of(HttpServletRequest req, HttpServletResponse rep, SessionStore store) {
+        FrameworkSession session = (FrameworkSession) req.getAttribute(ATTRIBUTE);
+        if (session == null) {
+            session = new FrameworkSession(store, req, rep);
+            req.setAttribute(ATTRIBUTE, session);
+        }
+        return session;
+    }
+
+    /**
+     * Écrit les modifications de la session de la requête, s'il y en a une
+     */
+    public static void flush(HttpServletRequest req) {
+        FrameworkSession session = (FrameworkSession) req.getAttribute(ATTRIBUTE);
+        if (session != null) {
+            session.flush();
+        }
     }
 
     // Récupérer une valeur
-    public Object get(String key) {
-        return this.session.getAttribute(key);
+    public synchronized Object get(String key) {
+        if (values.containsKey(key)) {
+            return values.get(key);
+        }
+        SessionStore.Handle current = handle(false);
+        Object value = current == null ? null : current.load(key);
+        values.put(key, value);
+        return value;
     }
 
     // Ajouter une valeur
-    public void put(String key, Object value) {
-        this.session.setAttribute(key, value);
+    public synchronized void put(String key, Object value) {
+        handle(true);
+        values.put(key, value);
+        changes.put(key, value);
+        if (store == null) {
+            flush();
+        }
     }
 
     // Supprimer une valeur
-    public void remove(String key) {
-        this.session.removeAttribute(key);
+    public synchronized void remove(String key) {
+        if (handle(false) == null) {
+            return;
+        }
+        values.put(key, null);
+        changes.put(key, null);
+        if (store == null) {
+            flush();
+        }
     }
 
     // Invalider (Logout)
-    public void invalidate() {
-        this.session.invalidate();
+    public synchronized void invalidate() {
+        SessionStore.Handle current = handle(false);
+        if (current != null) {
+            current.invalidate();
+        }
+        handle = null;
+        opened = store == null;
+        values.clear();
+        changes.clear();
+    }
+
+    /**
+     * Écrit les attributs modifiés depuis le dernier flush
+     */
+    public synchronized void flush() {
+        if (handle != null && !changes.isEmpty()) {
+            handle.store(changes);
+        }
+        changes.clear();
+    }
+
+    public synchronized boolean isDirty() {
+        return !changes.isEmpty();
+    }
+
+    private synchronized SessionStore.Handle handle(boolean create) {
+        if (handle == null && (!opened || create) && store != null) {
+            handle = store.open(req, rep, create);
+            opened = true;
+        }
+        if (handle == null && create && store == null) {
+            throw new IllegalStateException("Session absente");
+        }
+        return handle;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package framework.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identifiants numériques des méthodes HTTP (0 à 63), pour indexer les routes
+ * par tableau et calculer Allow / 405 par masque de bits.
+ * Les méthodes standard ont un identifiant fixe ; une méthode déclarée par @MethodMapping
+ * hors de cette liste reçoit le suivant au démarrage.
+ */
+public class HttpMethods {
+
+    public static final int GET = 0;
+    public static final int HEAD = 1;
+    public static final int POST = 2;
+    public static final int PUT = 3;
+    public static final int DELETE = 4;
+    public static final int PATCH = 5;
+    public static final int OPTIONS = 6;
+    public static final int TRACE = 7;
+
+    public static final int MAX = 64;
+
+    private static final String[] NAMES = new String[MAX];
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static int next;
+
+    static {
+        for (String name : new String[] { "GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS", "TRACE" }) {
+            register(name);
+        }
+    }
+
+    /**
+     * Identifiant d'une méthode de requête ; -1 si aucune route ne la déclare
+     */
+    public static int id(String method) {
+        Integer id = IDS.get(method);
+        if (id == null) {
+            id = IDS.get(method.toUpperCase(Locale.ROOT));
+        }
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Identifiant d'une méthode déclarée par une route (enregistrée si nouvelle)
+     */
+    public static synchronized int register(String method) {
+        String name = method.trim().toUpperCase(Locale.ROOT);
+        Integer id = IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (next >= MAX) {
+            throw new IllegalStateException("Trop de méthodes HTTP distinctes (max " + MAX + ") : " + name);
+        }
+        NAMES[next] = name;
+        IDS.put(name, next);
+        return next++;
+    }
+
+    public static String name(int id) {
+        return NAMES[id];
+    }
+
+    /**
+     * Valeur de l'en-tête Allow pour un masque de méthodes
+     */
+    public static String allow(long mask) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int id = 0; id < MAX; id++) {
+            if ((mask & (1L << id)) != 0) {
+                joiner.add(NAMES[id]);
+            }
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package framework.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Erreur de requête renvoyée au client avec un code HTTP précis (413, 400...)
+ * au lieu de l'"Erreur Serveur" générique.
+ */
+public class HttpStatusException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    public HttpStatusException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Ajoute un en-tête à la réponse d'erreur (ex: Retry-After)
+     */
+    public HttpStatusException header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
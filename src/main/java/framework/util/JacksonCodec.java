@@ -0,0 +1,141 @@
+package framework.util;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * JsonCodec par défaut : un seul ObjectMapper Jackson configuré au démarrage,
+ * dont on garde l'ObjectWriter et l'ObjectReader (thread-safe, caches de sérialiseurs conservés).
+ *
+ * Clés lues dans app.properties :
+ *   JSON_INDENT=true                      indentation de la sortie
+ *   JSON_DATE_FORMAT=yyyy-MM-dd HH:mm     format des java.util.Date (sinon timestamp)
+ *   JSON_INCLUSION=NON_NULL               valeur de JsonInclude.Include
+ *   JSON_ENABLE / JSON_DISABLE            listes de Serialization/Deserialization/MapperFeature
+ *   JSON_MODULES                          classes de Module Jackson à enregistrer
+ *   JSON_FIND_MODULES=true                enregistre les modules trouvés par ServiceLoader
+ *
+ * Le mapper est construit par JsonMapper.builder() : les MapperFeature ne peuvent plus changer après.
+ * Pour enregistrer des modules ou fixer des MapperFeature par code, étendre cette classe et surcharger
+ * configure(JsonMapper.Builder) ; configure(ObjectMapper) reste appelé sur le mapper construit.
+ */
+public class JacksonCodec implements JsonCodec {
+
+    private final com.fasterxml.jackson.databind.ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    public JacksonCodec(ProjectConfig config) {
+        JsonMapper.Builder builder = JsonMapper.builder();
+
+        if (config.getBoolean("JSON_INDENT", false)) {
+            builder.enable(SerializationFeature.INDENT_OUTPUT);
+        }
+
+        String dateFormat = config.getProperty("JSON_DATE_FORMAT");
+        if (dateFormat != null && !dateFormat.isBlank()) {
+            builder.defaultDateFormat(new SimpleDateFormat(dateFormat.trim()));
+        }
+
+        String inclusion = config.getProperty("JSON_INCLUSION");
+        if (inclusion != null && !inclusion.isBlank()) {
+            builder.serializationInclusion(JsonInclude.Include.valueOf(inclusion.trim().toUpperCase(Locale.ROOT)));
+        }
+
+        for (String feature : config.getList("JSON_ENABLE")) {
+            setFeature(builder, feature, true);
+        }
+        for (String feature : config.getList("JSON_DISABLE")) {
+            setFeature(builder, feature, false);
+        }
+
+        if (config.getBoolean("JSON_FIND_MODULES", false)) {
+            builder.findAndAddModules();
+        }
+        for (String moduleClass : config.getList("JSON_MODULES")) {
+            try {
+                Class<?> clazz = Class.forName(moduleClass, true, Thread.currentThread().getContextClassLoader());
+                builder.addModule((Module) clazz.getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalArgumentException("Module Jackson invalide : " + moduleClass, e);
+            }
+        }
+
+        configure(builder);
+        this.mapper = builder.build();
+        configure(mapper);
+
+        this.writer = mapper.writer();
+        this.reader = mapper.reader();
+    }
+
+    /**
+     * Point d'extension appelé une fois, avant la construction du mapper (MapperFeature, modules...)
+     */
+    protected void configure(JsonMapper.Builder builder) {
+    }
+
+    /**
+     * Point d'extension appelé une fois, avant la création du writer et du reader
+     */
+    protected void configure(com.fasterxml.jackson.databind.ObjectMapper mapper) {
+    }
+
+    @Override
+    public ObjectWriter writer() {
+        return writer;
+    }
+
+    @Override
+    public ObjectReader reader() {
+        return reader;
+    }
+
+    /**
+     * Instancie le codec déclaré par JSON_CODEC, ou JacksonCodec par défaut
+     */
+    public static JsonCodec fromConfig(ProjectConfig config) throws ReflectiveOperationException {
+        String codecClass = config.getProperty("JSON_CODEC");
+        if (codecClass == null || codecClass.isBlank()) {
+            return new JacksonCodec(config);
+        }
+
+        Class<?> clazz = Class.forName(codecClass.trim(), true, Thread.currentThread().getContextClassLoader());
+        try {
+            return (JsonCodec) clazz.getDeclaredConstructor(ProjectConfig.class).newInstance(config);
+        } catch (NoSuchMethodException e) {
+            return (JsonCodec) clazz.getDeclaredConstructor().newInstance();
+        }
+    }
+
+    private static void setFeature(JsonMapper.Builder builder, String name, boolean state) {
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            if (feature.name().equals(name)) {
+                builder.configure(feature, state);
+                return;
+            }
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            if (feature.name().equals(name)) {
+                builder.configure(feature, state);
+                return;
+            }
+        }
+        for (MapperFeature feature : MapperFeature.values()) {
+            if (feature.name().equals(name)) {
+                builder.configure(feature, state);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Fonctionnalité Jackson inconnue : " + name);
+    }
+}
@@ -0,0 +1,20 @@
+package framework.util;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Point d'extension pour la sérialisation JSON du framework.
+ * L'implémentation est créée une seule fois dans init() et partagée par tous les threads :
+ * writer() et reader() doivent renvoyer des instances immuables (ObjectWriter/ObjectReader le sont).
+ *
+ * Implémentation par défaut : JacksonCodec. Pour la remplacer, renseigner JSON_CODEC
+ * dans app.properties avec une classe ayant un constructeur sans argument
+ * ou prenant un ProjectConfig.
+ */
+public interface JsonCodec {
+
+    ObjectWriter writer();
+
+    ObjectReader reader();
+}
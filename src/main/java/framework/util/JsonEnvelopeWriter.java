@@ -0,0 +1,90 @@
+package framework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Écrit l'enveloppe JSON des réponses @JsonAnnot directement dans le flux de sortie :
+ *   {"status":"success","code":200,"data":...}
+ * Collection / Map   : "data":{"count":n,"items":...}
+ * Iterator / Stream / Iterable : "data":{"items":[...],"count":n}, écrits élément par élément
+ * (le nombre d'éléments n'est connu qu'à la fin, d'où "count" après "items").
+ *
+ * Aucune Map intermédiaire ni String complète n'est construite. Si l'écriture échoue en cours de route,
+ * ce qui est déjà parti reste un JSON incomplet (donc invalide), jamais refermé silencieusement.
+ */
+public class JsonEnvelopeWriter {
+
+    private final ObjectWriter writer;
+
+    public JsonEnvelopeWriter(JsonCodec codec) {
+        // Sans flush après chaque élément : le générateur vide son tampon quand il est plein
+        this.writer = codec.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void write(OutputStream out, int code, Object data) throws IOException {
+        JsonGenerator gen = writer.createGenerator(out, JsonEncoding.UTF8);
+        // Le flux appartient au conteneur : close() ne fait que vider le tampon
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Jamais de fermeture automatique des tableaux et objets ouverts : un JSON tronqué doit rester invalide
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        gen.writeStartObject();
+        gen.writeStringField("status", "success");
+        gen.writeNumberField("code", code);
+        gen.writeFieldName("data");
+        writeData(gen, data);
+        gen.writeEndObject();
+        // Pas de close() sur erreur : le tampon du générateur est abandonné, et si rien n'est encore
+        // parti, la réponse n'est pas engagée et l'erreur peut remplacer le début du JSON
+        gen.close();
+    }
+
+    private void writeData(JsonGenerator gen, Object data) throws IOException {
+        if (data instanceof Collection<?>) {
+            gen.writeStartObject();
+            gen.writeNumberField("count", ((Collection<?>) data).size());
+            gen.writeFieldName("items");
+            writer.writeValue(gen, data);
+            gen.writeEndObject();
+        } else if (data instanceof Map<?, ?>) {
+            gen.writeStartObject();
+            gen.writeNumberField("count", ((Map<?, ?>) data).size());
+            gen.writeFieldName("items");
+            writer.writeValue(gen, data);
+            gen.writeEndObject();
+        } else if (data instanceof Stream<?>) {
+            try (Stream<?> stream = (Stream<?>) data) {
+                writeItems(gen, stream.iterator());
+            }
+        } else if (data instanceof Iterator<?>) {
+            writeItems(gen, (Iterator<?>) data);
+        } else if (data instanceof Iterable<?>) {
+            writeItems(gen, ((Iterable<?>) data).iterator());
+        } else {
+            writer.writeValue(gen, data);
+        }
+    }
+
+    private void writeItems(JsonGenerator gen, Iterator<?> items) throws IOException {
+        long count = 0;
+        gen.writeStartObject();
+        gen.writeFieldName("items");
+        gen.writeStartArray();
+        while (items.hasNext()) {
+            writer.writeValue(gen, items.next());
+            count++;
+        }
+        gen.writeEndArray();
+        gen.writeNumberField("count", count);
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,133 @@
+package framework.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées en nanosecondes, à buckets log-linéaires (à la HdrHistogram) :
+ * chaque puissance de 2 est découpée en 8 sous-buckets, soit une erreur relative de 12,5 % au plus,
+ * de 1 ns à environ 18 minutes. Enregistrement sans verrou : chaque bucket est un LongAdder,
+ * qui se répartit en cellules quand plusieurs threads enregistrent la même durée.
+ *
+ * Les lectures passent par snapshot() : le total est la somme des buckets copiés,
+ * jamais un compteur lu à un autre instant.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[index(nanos)].increment();
+        sum.add(nanos);
+    }
+
+    /**
+     * Copie des buckets, cohérente avec elle-même : cumuls, +Inf et total en dérivent
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts);
+    }
+
+    public long getCount() {
+        return snapshot().getCount();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Nombre de valeurs inférieures ou égales à la borne (à la précision des buckets près)
+     */
+    public long countAtOrBelow(long nanos) {
+        return snapshot().countAtOrBelow(nanos);
+    }
+
+    /**
+     * Valeur au quantile q (0..1), bornée supérieurement par le bucket qui le contient
+     */
+    public long quantile(double q) {
+        return snapshot().quantile(q);
+    }
+
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        int sub = index % SUB_COUNT;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((SUB_COUNT + sub) * width) + width - 1;
+    }
+
+    /**
+     * Buckets figés d'un histogramme
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long value : counts) {
+                total += value;
+            }
+            this.count = total;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long countAtOrBelow(long nanos) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS && upperBound(i) <= nanos; i++) {
+                total += counts[i];
+            }
+            return total;
+        }
+
+        public long quantile(double q) {
+            long target = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package framework.util;
+
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques des requêtes, par route et par phase (routage, liaison, invocation, rendu),
+ * exposées au format texte Prometheus sur l'URL METRICS_URL de app.properties.
+ * Sans METRICS_URL, rien n'est mesuré.
+ *
+ * Coût mémoire : chaque phase est un LatencyHistogram de 312 buckets LongAdder, soit 4 x 312 = 1 248
+ * LongAdder par route (environ 32 octets chacun sans contention, près de 45 Ko par route).
+ * Un bucket disputé par plusieurs threads alloue en plus ses cellules (une ligne de cache par cœur),
+ * seulement pour les durées effectivement concurrentes.
+ */
+public class Metrics {
+
+    public enum Phase {
+        ROUTING, BINDING, INVOCATION, RENDERING;
+
+        final String label = name().toLowerCase(Locale.ROOT);
+    }
+
+    // Bornes exportées (secondes) ; les buckets fins de LatencyHistogram y sont regroupés
+    private static final double[] BOUNDS = {
+        0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01,
+        0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private static final String[] BOUND_LABELS = new String[BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUND_LABELS[i] = BigDecimal.valueOf(BOUNDS[i]).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private final List<RouteMetrics> routes = new CopyOnWriteArrayList<>();
+    private final LongAdder unmatched = new LongAdder();
+
+    public RouteMetrics register(String httpMethod, String url) {
+        RouteMetrics metrics = new RouteMetrics(httpMethod, url);
+        routes.add(metrics);
+        return metrics;
+    }
+
+    public void unmatched() {
+        unmatched.increment();
+    }
+
+    /**
+     * Format d'exposition texte Prometheus 0.0.4
+     */
+    public void write(PrintWriter out) {
+        out.println("# HELP framework_requests_total Requêtes traitées, par route et classe de statut.");
+        out.println("# TYPE framework_requests_total counter");
+        for (RouteMetrics route : routes) {
+            for (int i = 0; i < route.statuses.length; i++) {
+                long value = route.statuses[i].sum();
+                if (value > 0) {
+                    out.print("framework_requests_total{" + route.labels + ",status=\"" + (i + 1) + "xx\"} ");
+                    out.println(value);
+                }
+            }
+        }
+
+        out.println("# HELP framework_errors_total Exceptions levées par les contrôleurs, par route.");
+        out.println("# TYPE framework_errors_total counter");
+        for (RouteMetrics route : routes) {
+            out.println("framework_errors_total{" + route.labels + "} " + route.errors.sum());
+        }
+
+        out.println("# HELP framework_unmatched_total Requêtes sans route correspondante.");
+        out.println("# TYPE framework_unmatched_total counter");
+        out.println("framework_unmatched_total " + unmatched.sum());
+
+        out.println("# HELP framework_request_phase_seconds Durée de chaque phase du traitement, par route.");
+        out.println("# TYPE framework_request_phase_seconds histogram");
+        for (RouteMetrics route : routes) {
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = route.phases[phase.ordinal()];
+                // Buckets, +Inf et _count d'une même copie : la série reste monotone
+                LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+                long count = snapshot.getCount();
+                if (count == 0) {
+                    continue;
+                }
+                String labels = route.labels + ",phase=\"" + phase.label + "\"";
+                for (int i = 0; i < BOUNDS.length; i++) {
+                    long cumulative = snapshot.countAtOrBelow((long) (BOUNDS[i] * 1e9));
+                    out.println("framework_request_phase_seconds_bucket{" + labels + ",le=\"" + BOUND_LABELS[i] + "\"} " + cumulative);
+                }
+                out.println("framework_request_phase_seconds_bucket{" + labels + ",le=\"+Inf\"} " + count);
+                out.println("framework_request_phase_seconds_sum{" + labels + "} " + histogram.getSum() / 1e9);
+                out.println("framework_request_phase_seconds_count{" + labels + "} " + count);
+            }
+        }
+        out.flush();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Compteurs d'une route ; enregistrement sans verrou (LongAdder, y compris les buckets des histogrammes)
+     */
+    public static class RouteMetrics {
+        private final String labels;
+        private final LongAdder[] statuses = new LongAdder[5];
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+
+        RouteMetrics(String httpMethod, String url) {
+            this.labels = "method=\"" + escape(httpMethod) + "\",route=\"" + escape(url) + "\"";
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = new LongAdder();
+            }
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+
+        public void record(Phase phase, long nanos) {
+            phases[phase.ordinal()].record(nanos);
+        }
+
+        public void status(int status) {
+            int family = status / 100 - 1;
+            if (family >= 0 && family < statuses.length) {
+                statuses[family].increment();
+            }
+        }
+
+        public void error() {
+            errors.increment();
+        }
+
+        public LatencyHistogram getHistogram(Phase phase) {
+            return phases[phase.ordinal()];
+        }
+    }
+}
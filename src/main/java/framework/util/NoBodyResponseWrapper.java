@@ -0,0 +1,132 @@
+package framework.util;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse à une requête HEAD servie par une route GET : le corps est compté puis jeté,
+ * seuls le statut et les en-têtes partent au client.
+ * finish() pose Content-Length à la taille qu'aurait eue le corps, si la route ne l'a pas fait.
+ */
+public class NoBodyResponseWrapper extends HttpServletResponseWrapper {
+
+    private final CountingOutputStream outputStream = new CountingOutputStream();
+    private PrintWriter writer;
+    private boolean contentLengthSet;
+
+    public NoBodyResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        super.setContentLength(len);
+        contentLengthSet = true;
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        super.setContentLengthLong(len);
+        contentLengthSet = true;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        super.setHeader(name, value);
+        contentLengthSet |= "Content-Length".equalsIgnoreCase(name);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        super.addHeader(name, value);
+        contentLengthSet |= "Content-Length".equalsIgnoreCase(name);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        outputStream.count = 0;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        outputStream.count = 0;
+        contentLengthSet = false;
+    }
+
+    /**
+     * Taille du corps qu'aurait produit la route
+     */
+    public long getContentLength() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return outputStream.count;
+    }
+
+    /**
+     * Fin de requête : Content-Length déduit du corps compté
+     */
+    public void finish() {
+        long length = getContentLength();
+        if (!contentLengthSet && !isCommitted()) {
+            super.setContentLengthLong(length);
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
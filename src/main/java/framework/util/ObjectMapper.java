@@ -1,256 +1,617 @@
 package framework.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Liaison des paramètres de formulaire vers des objets, à profondeur quelconque :
+ *   e.name, e.adresse.ville          objets imbriqués
+ *   e.lignes[3].produit.tags[1]      listes, tableaux, Set (indices creux conservés pour List et tableaux)
+ *   e.attrs[cle] ou e.attrs.cle      Map (clé convertie selon le type déclaré)
+ *   e.tags=a&e.tags=b, e.tags[]=a    collection de scalaires à partir des valeurs multiples
+ *
+ * Le coût est borné par Limits (profondeur, indice maximal, nombre de clés, cases de listes) : un
+ * formulaire qui dépasse ces bornes est refusé en 400 avant toute allocation proportionnelle aux indices.
+ * Une liste creuse occupe autant de cases que son plus grand indice + 1 : c'est leur total, pas le
+ * nombre de clés, que borne FORM_MAX_SLOTS.
+ */
 public class ObjectMapper {
-    
+
+    /**
+     * Description de liaison d'une classe, calculée une seule fois par type
+     */
+    private static final ClassValue<BeanDescriptor> DESCRIPTORS = new ClassValue<>() {
+        @Override
+        protected BeanDescriptor computeValue(Class<?> type) {
+            return new BeanDescriptor(type);
+        }
+    };
+
     /**
-     * Mappe les paramètres de la requête vers un objet du type spécifié
+     * Mappe les paramètres de la requête vers un objet du type spécifié, avec les bornes par défaut
      * @param parameterMap Map des paramètres de la requête
      * @param targetClass La classe de l'objet à créer
      * @param paramPrefix Le préfixe du paramètre (ex: "e" pour "e.name")
      * @return L'objet mappé ou null si aucun paramètre correspondant
      */
     public static Object mapToObject(Map<String, String[]> parameterMap, Class<?> targetClass, String paramPrefix) throws Exception {
-        // Vérifier si des paramètres commencent par le préfixe
-        boolean hasMatchingParams = false;
-        for (String key : parameterMap.keySet()) {
-            if (key.startsWith(paramPrefix + ".")) {
-                hasMatchingParams = true;
-                break;
+        return mapToObject(parameterMap, targetClass, paramPrefix, Limits.DEFAULT);
+    }
+
+    public static Object mapToObject(Map<String, String[]> parameterMap, Type targetType, String paramPrefix, Limits limits) throws Exception {
+        return mapToObject(parameterMap, plan(targetType), paramPrefix, limits);
+    }
+
+    /**
+     * Comme ci-dessus, avec un plan compilé une fois par l'appelant (ex: par paramètre de route)
+     */
+    public static Object mapToObject(Map<String, String[]> parameterMap, Plan plan, String paramPrefix, Limits limits) throws Exception {
+        PathNode root = parsePaths(parameterMap, paramPrefix, limits);
+        if (root == null) {
+            return null;
+        }
+        return bind(root, plan.plan);
+    }
+
+    /**
+     * Plan de liaison d'un type, à garder par l'appelant : les types génériques (List<Emp>...)
+     * ne sont mis en cache nulle part ailleurs
+     */
+    public static Plan plan(Type targetType) {
+        return new Plan(TypePlan.of(targetType));
+    }
+
+    public static final class Plan {
+        private final TypePlan plan;
+
+        private Plan(TypePlan plan) {
+            this.plan = plan;
+        }
+    }
+
+    /**
+     * Un seul passage sur les clés : "e.lignes[0].nom" devient racine -> lignes -> [0] -> nom = valeurs
+     */
+    private static PathNode parsePaths(Map<String, String[]> parameterMap, String prefix, Limits limits) {
+        PathNode root = null;
+        int start = prefix.length() + 1;
+        int keys = 0;
+        long slots = 0;
+
+        for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
+            String key = entry.getKey();
+            if (key.length() <= start || key.charAt(start - 1) != '.' || !key.startsWith(prefix)) {
+                continue;
+            }
+            if (++keys > limits.maxKeys) {
+                throw badRequest("Trop de champs pour " + prefix + " (max " + limits.maxKeys + ")");
+            }
+            if (root == null) {
+                root = new PathNode();
+            }
+
+            PathNode node = root;
+            int depth = 0;
+            int i = start;
+            int length = key.length();
+            while (node != null && i < length) {
+                char c = key.charAt(i);
+                if (c == '.') {
+                    i++;
+                    continue;
+                }
+                if (++depth > limits.maxDepth) {
+                    throw badRequest("Champ trop profond : " + key + " (max " + limits.maxDepth + " niveaux)");
+                }
+                if (c == '[') {
+                    int close = key.indexOf(']', i);
+                    if (close < 0) {
+                        // Crochet non fermé : la clé est ignorée
+                        node = null;
+                        break;
+                    }
+                    if (close > i + 1) {
+                        String token = key.substring(i + 1, close);
+                        Long index = Converters.parseLong(token, 0, Integer.MAX_VALUE);
+                        if (index == null) {
+                            node = node.key(token);
+                        } else if (index > limits.maxIndex) {
+                            throw badRequest("Indice trop grand : " + key + " (max " + limits.maxIndex + ")");
+                        } else {
+                            // Cases ajoutées à la liste (trous compris) si l'indice l'allonge
+                            int span = node.elements == null ? 0 : node.elements.lastKey() + 1;
+                            if (index >= span) {
+                                slots += index + 1 - span;
+                                if (slots > limits.maxSlots) {
+                                    throw badRequest("Listes trop grandes pour " + prefix + " (max " + limits.maxSlots + " éléments, trous compris)");
+                                }
+                            }
+                            node = node.element(index.intValue());
+                        }
+                    }
+                    // "[]" : valeurs multiples sur le même noeud
+                    i = close + 1;
+                } else {
+                    int end = i;
+                    while (end < length && key.charAt(end) != '.' && key.charAt(end) != '[') {
+                        end++;
+                    }
+                    node = node.property(key.substring(i, end));
+                    i = end;
+                }
+            }
+
+            String[] values = entry.getValue();
+            if (node != null && values != null && values.length > 0) {
+                node.values = values;
             }
         }
-        
-        if (!hasMatchingParams) {
-            return null;
+        return root;
+    }
+
+    private static Object bind(PathNode node, TypePlan plan) {
+        switch (plan.kind) {
+            case TypePlan.SCALAR:
+                return convertValue(node.value(), plan.converter, plan.raw);
+            case TypePlan.GUESS:
+                return Convertor.detectAndCastValue(node.value());
+            case TypePlan.ARRAY:
+                return bindArray(node, plan);
+            case TypePlan.COLLECTION:
+                return bindCollection(node, plan);
+            case TypePlan.MAP:
+                return bindMap(node, plan);
+            case TypePlan.BEAN:
+                return bindBean(node, plan.raw);
+            default:
+                return null;
+        }
+    }
+
+    private static Object bindBean(PathNode node, Class<?> type) {
+        BeanDescriptor descriptor = DESCRIPTORS.get(type);
+        Object instance = descriptor.newInstance();
+        if (node.properties == null) {
+            return instance;
         }
-        
-        // Créer une instance de l'objet
-        Object instance = targetClass.getDeclaredConstructor().newInstance();
-        
-        // Grouper les paramètres par attribut
-        Map<String, Map<String, String>> groupedParams = groupParametersByAttribute(parameterMap, paramPrefix);
-        
-        // Remplir les champs de l'objet
-        for (Map.Entry<String, Map<String, String>> entry : groupedParams.entrySet()) {
+
+        for (Map.Entry<String, PathNode> entry : node.properties.entrySet()) {
             String fieldName = entry.getKey();
-            Map<String, String> fieldParams = entry.getValue();
-            
-            try {
-                Field field = findField(targetClass, fieldName);
-                if (field != null) {
-                    field.setAccessible(true);
-                    Object fieldValue = mapFieldValue(field, fieldParams, paramPrefix + "." + fieldName);
-                    field.set(instance, fieldValue);
-                }
-            } catch (Exception e) {
+            FieldBinding field = descriptor.fields.get(fieldName);
+            if (field == null) {
                 // Ignorer les champs qui n'existent pas
-                System.err.println("Erreur lors du mapping du champ " + fieldName + ": " + e.getMessage());
+                continue;
+            }
+            // Valeur invalide : HttpStatusException (400) ; autre échec : erreur serveur, journalisée par FrontServlet
+            Object value = bind(entry.getValue(), field.plan);
+            if (value != null || !field.type.isPrimitive()) {
+                field.set(instance, value);
             }
         }
-        
         return instance;
     }
-    
+
     /**
-     * Groupe les paramètres par attribut de premier niveau
-     * Ex: "e.name" -> "name", "e.departement[0].name" -> "departement"
+     * List / Collection / Set. Pour une liste, l'indice est une position : les trous valent null.
      */
-    private static Map<String, Map<String, String>> groupParametersByAttribute(Map<String, String[]> parameterMap, String prefix) {
-        Map<String, Map<String, String>> grouped = new HashMap<>();
-        String prefixWithDot = prefix + ".";
-        
-        for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
-            String key = entry.getKey();
-            if (key.startsWith(prefixWithDot)) {
-                String remainingPath = key.substring(prefixWithDot.length());
-                
-                // Extraire le nom du premier attribut
-                String firstAttribute = extractFirstAttribute(remainingPath);
-                
-                if (!grouped.containsKey(firstAttribute)) {
-                    grouped.put(firstAttribute, new HashMap<>());
+    private static Collection<Object> bindCollection(PathNode node, TypePlan plan) {
+        Collection<Object> collection = plan.newCollection();
+        if (collection == null) {
+            return null;
+        }
+        TypePlan element = plan.element();
+
+        if (node.elements != null) {
+            if (collection instanceof List) {
+                int size = node.elements.lastKey() + 1;
+                for (int i = 0; i < size; i++) {
+                    PathNode child = node.elements.get(i);
+                    collection.add(child == null ? null : bind(child, element));
+                }
+            } else {
+                for (PathNode child : node.elements.values()) {
+                    Object value = bind(child, element);
+                    if (value != null) {
+                        collection.add(value);
+                    }
+                }
+            }
+        } else if (node.values != null && element.isScalar()) {
+            for (String raw : node.values) {
+                Object value = bindScalar(raw, element);
+                if (value != null) {
+                    collection.add(value);
                 }
-                
-                grouped.get(firstAttribute).put(key, entry.getValue()[0]);
             }
         }
-        
-        return grouped;
+        return collection;
     }
-    
+
+    private static Object bindArray(PathNode node, TypePlan plan) {
+        TypePlan element = plan.element();
+        Class<?> componentType = plan.raw.getComponentType();
+
+        if (node.elements != null) {
+            Object array = Array.newInstance(componentType, node.elements.lastKey() + 1);
+            for (Map.Entry<Integer, PathNode> entry : node.elements.entrySet()) {
+                Object value = bind(entry.getValue(), element);
+                if (value != null) {
+                    Array.set(array, entry.getKey(), value);
+                }
+            }
+            return array;
+        }
+        if (node.values != null && element.isScalar()) {
+            Object array = Array.newInstance(componentType, node.values.length);
+            for (int i = 0; i < node.values.length; i++) {
+                Object value = bindScalar(node.values[i], element);
+                if (value != null) {
+                    Array.set(array, i, value);
+                }
+            }
+            return array;
+        }
+        return Array.newInstance(componentType, 0);
+    }
+
     /**
-     * Extrait le premier attribut d'un chemin
-     * Ex: "name" -> "name", "departement[0].name" -> "departement"
+     * Map : les entrées viennent de attrs[cle], attrs[0] ou attrs.cle
      */
-    private static String extractFirstAttribute(String path) {
-        int dotIndex = path.indexOf('.');
-        int bracketIndex = path.indexOf('[');
-        
-        if (dotIndex == -1 && bracketIndex == -1) {
-            return path;
-        } else if (dotIndex == -1) {
-            return path.substring(0, bracketIndex);
-        } else if (bracketIndex == -1) {
-            return path.substring(0, dotIndex);
-        } else {
-            return path.substring(0, Math.min(dotIndex, bracketIndex));
+    private static Map<Object, Object> bindMap(PathNode node, TypePlan plan) {
+        Map<Object, Object> map = plan.newMap();
+        if (map == null || plan.keyConverter == null) {
+            return map;
         }
+        TypePlan value = plan.element();
+
+        if (node.keys != null) {
+            for (Map.Entry<String, PathNode> entry : node.keys.entrySet()) {
+                putEntry(map, plan.keyConverter, entry.getKey(), entry.getValue(), value);
+            }
+        }
+        if (node.elements != null) {
+            for (Map.Entry<Integer, PathNode> entry : node.elements.entrySet()) {
+                putEntry(map, plan.keyConverter, String.valueOf(entry.getKey()), entry.getValue(), value);
+            }
+        }
+        if (node.properties != null) {
+            for (Map.Entry<String, PathNode> entry : node.properties.entrySet()) {
+                putEntry(map, plan.keyConverter, entry.getKey(), entry.getValue(), value);
+            }
+        }
+        return map;
+    }
+
+    private static void putEntry(Map<Object, Object> map, Converter<?> keyConverter, String rawKey, PathNode node, TypePlan value) {
+        Object key = keyConverter.convert(rawKey);
+        if (key != null) {
+            map.put(key, bind(node, value));
+        }
+    }
+
+    private static Object bindScalar(String raw, TypePlan plan) {
+        return plan.kind == TypePlan.GUESS ? Convertor.detectAndCastValue(raw) : convertValue(raw, plan.converter, plan.raw);
     }
-    
+
     /**
-     * Mappe la valeur d'un champ en fonction de son type
+     * Convertit la valeur selon le type déclaré du champ ; une valeur invalide est refusée en 400,
+     * comme pour un paramètre scalaire (rien n'est journalisé : la valeur vient du client)
      */
-    private static Object mapFieldValue(Field field, Map<String, String> fieldParams, String fieldPath) throws Exception {
-        Class<?> fieldType = field.getType();
-        
-        // Si c'est une List
-        if (List.class.isAssignableFrom(fieldType)) {
-            return mapToList(field, fieldParams, fieldPath);
-        }
-        // Si c'est un type primitif ou String
-        else if (isPrimitiveOrWrapper(fieldType) || fieldType == String.class) {
-            String value = fieldParams.get(fieldPath);
-            if (value != null) {
-                return Convertor.detectAndCastValue(value);
-            }
+    private static Object convertValue(String value, Converter<?> converter, Class<?> type) {
+        if (value == null) {
             return null;
         }
-        // Si c'est un objet complexe
-        else {
-            return mapToNestedObject(fieldType, fieldParams, fieldPath);
+        Object converted = converter.convert(value);
+        if (converted == null) {
+            throw badRequest("Valeur invalide pour un champ " + type.getSimpleName() + " : " + value);
         }
+        return converted;
     }
-    
+
+    private static HttpStatusException badRequest(String message) {
+        return new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, message);
+    }
+
     /**
-     * Mappe vers une List
+     * Bornes de coût de la liaison, lues dans app.properties :
+     *   FORM_MAX_DEPTH (32), FORM_MAX_INDEX (1023), FORM_MAX_KEYS (2000),
+     *   FORM_MAX_SLOTS (8192) : total des cases de listes et tableaux d'un objet lié, trous compris
      */
-    private static List<?> mapToList(Field field, Map<String, String> fieldParams, String fieldPath) throws Exception {
-        // Obtenir le type générique de la liste
-        Type genericType = field.getGenericType();
-        if (!(genericType instanceof ParameterizedType)) {
-            return new ArrayList<>();
-        }
-        
-        ParameterizedType paramType = (ParameterizedType) genericType;
-        Class<?> elementType = (Class<?>) paramType.getActualTypeArguments()[0];
-        
-        // Grouper les paramètres par index
-        Map<Integer, Map<String, String>> indexedParams = groupByIndex(fieldParams, fieldPath);
-        
-        List<Object> list = new ArrayList<>();
-        for (int i = 0; i < indexedParams.size(); i++) {
-            if (indexedParams.containsKey(i)) {
-                Map<String, String> elementParams = indexedParams.get(i);
-                Object element = mapToNestedObject(elementType, elementParams, fieldPath + "[" + i + "]");
-                list.add(element);
-            }
-        }
-        
-        return list;
+    public static final class Limits {
+        public static final Limits DEFAULT = new Limits(32, 1023, 2000, 8192);
+
+        final int maxDepth;
+        final int maxIndex;
+        final int maxKeys;
+        final int maxSlots;
+
+        public Limits(int maxDepth, int maxIndex, int maxKeys, int maxSlots) {
+            this.maxDepth = maxDepth;
+            this.maxIndex = maxIndex;
+            this.maxKeys = maxKeys;
+            this.maxSlots = maxSlots;
+        }
+
+        public static Limits fromConfig(ProjectConfig config) {
+            return new Limits(
+                    config.getInt("FORM_MAX_DEPTH", DEFAULT.maxDepth),
+                    config.getInt("FORM_MAX_INDEX", DEFAULT.maxIndex),
+                    config.getInt("FORM_MAX_KEYS", DEFAULT.maxKeys),
+                    config.getInt("FORM_MAX_SLOTS", DEFAULT.maxSlots));
+        }
     }
-    
+
     /**
-     * Groupe les paramètres par index pour une liste
-     * Ex: "e.departement[0].name", "e.departement[1].name" -> {0: {...}, 1: {...}}
+     * Noeud de l'arbre des chemins de paramètres
      */
-    private static Map<Integer, Map<String, String>> groupByIndex(Map<String, String> params, String fieldPath) {
-        Map<Integer, Map<String, String>> indexed = new HashMap<>();
-        
-        for (Map.Entry<String, String> entry : params.entrySet()) {
-            String key = entry.getKey();
-            if (key.startsWith(fieldPath + "[")) {
-                // Extraire l'index
-                int startBracket = key.indexOf('[', fieldPath.length());
-                int endBracket = key.indexOf(']', startBracket);
-                
-                if (startBracket != -1 && endBracket != -1) {
-                    String indexStr = key.substring(startBracket + 1, endBracket);
-                    try {
-                        int index = Integer.parseInt(indexStr);
-                        
-                        if (!indexed.containsKey(index)) {
-                            indexed.put(index, new HashMap<>());
-                        }
-                        
-                        indexed.get(index).put(key, entry.getValue());
-                    } catch (NumberFormatException e) {
-                        // Ignorer les indices invalides
-                    }
-                }
+    private static final class PathNode {
+        String[] values;
+        Map<String, PathNode> properties;
+        TreeMap<Integer, PathNode> elements;
+        Map<String, PathNode> keys;
+
+        String value() {
+            return values == null ? null : values[0];
+        }
+
+        PathNode property(String name) {
+            if (properties == null) {
+                properties = new LinkedHashMap<>();
+            }
+            return properties.computeIfAbsent(name, k -> new PathNode());
+        }
+
+        PathNode element(int index) {
+            if (elements == null) {
+                elements = new TreeMap<>();
+            }
+            return elements.computeIfAbsent(index, k -> new PathNode());
+        }
+
+        PathNode key(String name) {
+            if (keys == null) {
+                keys = new LinkedHashMap<>();
             }
+            return keys.computeIfAbsent(name, k -> new PathNode());
         }
-        
-        return indexed;
     }
-    
+
     /**
-     * Mappe vers un objet imbriqué
+     * Manière de lier un type (générique compris).
+     * Le plan d'une classe est attaché à la classe (ClassValue) : il disparaît avec son chargeur
+     * au redéploiement. Celui d'un type générique est gardé par ce qui le référence (champ de bean,
+     * plan parent, paramètre de route), sans table globale qui retiendrait les classes de l'application.
+     * Le plan des éléments est résolu à la première utilisation (types récursifs).
      */
-    private static Object mapToNestedObject(Class<?> objectType, Map<String, String> params, String prefix) throws Exception {
-        Object instance = objectType.getDeclaredConstructor().newInstance();
-        
-        for (Map.Entry<String, String> entry : params.entrySet()) {
-            String key = entry.getKey();
-            if (key.startsWith(prefix + ".")) {
-                String remainingPath = key.substring(prefix.length() + 1);
-                String fieldName = extractFirstAttribute(remainingPath);
-                
-                try {
-                    Field field = findField(objectType, fieldName);
-                    if (field != null) {
-                        field.setAccessible(true);
-                        
-                        // Si le champ est primitif/String, on assigne directement
-                        if (isPrimitiveOrWrapper(field.getType()) || field.getType() == String.class) {
-                            String fullPath = prefix + "." + fieldName;
-                            if (params.containsKey(fullPath)) {
-                                Object value = Convertor.detectAndCastValue(params.get(fullPath));
-                                field.set(instance, value);
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Erreur lors du mapping du champ imbriqué " + fieldName + ": " + e.getMessage());
+    private static final class TypePlan {
+        static final int SCALAR = 0;
+        static final int GUESS = 1;
+        static final int ARRAY = 2;
+        static final int COLLECTION = 3;
+        static final int MAP = 4;
+        static final int BEAN = 5;
+        static final int UNSUPPORTED = 6;
+
+        private static final ClassValue<TypePlan> PLANS = new ClassValue<>() {
+            @Override
+            protected TypePlan computeValue(Class<?> type) {
+                return new TypePlan(type);
+            }
+        };
+
+        final Type type;
+        final Class<?> raw;
+        final int kind;
+        final Converter<?> converter;
+        final Converter<?> keyConverter;
+        private volatile TypePlan element;
+
+        static TypePlan of(Type type) {
+            return type instanceof Class ? PLANS.get((Class<?>) type) : new TypePlan(type);
+        }
+
+        private TypePlan(Type type) {
+            this.type = type;
+            this.raw = rawClass(type);
+            this.converter = Converters.forType(raw);
+
+            if (converter != null) {
+                kind = SCALAR;
+            } else if (raw == Object.class) {
+                kind = GUESS;
+            } else if (raw.isArray()) {
+                kind = ARRAY;
+            } else if (Collection.class.isAssignableFrom(raw) || raw == Iterable.class) {
+                kind = COLLECTION;
+            } else if (Map.class.isAssignableFrom(raw)) {
+                kind = MAP;
+            } else if (raw.isInterface() || Modifier.isAbstract(raw.getModifiers())) {
+                kind = UNSUPPORTED;
+            } else {
+                kind = BEAN;
+            }
+            this.keyConverter = kind == MAP ? Converters.forType(rawClass(typeArgument(type, 0))) : null;
+        }
+
+        boolean isScalar() {
+            return kind == SCALAR || kind == GUESS;
+        }
+
+        /**
+         * Plan des éléments (tableau, collection) ou des valeurs (Map)
+         */
+        TypePlan element() {
+            TypePlan plan = element;
+            if (plan == null) {
+                Type elementType;
+                if (kind == ARRAY) {
+                    elementType = type instanceof GenericArrayType ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType();
+                } else {
+                    elementType = typeArgument(type, kind == MAP ? 1 : 0);
                 }
+                plan = of(elementType);
+                element = plan;
             }
+            return plan;
+        }
+
+        Collection<Object> newCollection() {
+            if (raw.isAssignableFrom(ArrayList.class)) {
+                return new ArrayList<>();
+            }
+            if (raw.isAssignableFrom(LinkedHashSet.class)) {
+                return new LinkedHashSet<>();
+            }
+            if (raw.isAssignableFrom(TreeSet.class) || raw == SortedSet.class) {
+                return new TreeSet<>();
+            }
+            if (raw.isAssignableFrom(LinkedList.class)) {
+                return new LinkedList<>();
+            }
+            return null;
+        }
+
+        Map<Object, Object> newMap() {
+            if (raw.isAssignableFrom(LinkedHashMap.class)) {
+                return new LinkedHashMap<>();
+            }
+            if (raw.isAssignableFrom(TreeMap.class) || raw == SortedMap.class) {
+                return new TreeMap<>();
+            }
+            return null;
+        }
+
+        private static Type typeArgument(Type type, int index) {
+            if (type instanceof ParameterizedType) {
+                Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+                if (index < args.length) {
+                    return args[index];
+                }
+            }
+            return Object.class;
+        }
+
+        private static Class<?> rawClass(Type type) {
+            if (type instanceof Class) {
+                return (Class<?>) type;
+            }
+            if (type instanceof ParameterizedType) {
+                return rawClass(((ParameterizedType) type).getRawType());
+            }
+            if (type instanceof GenericArrayType) {
+                return Array.newInstance(rawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+            }
+            if (type instanceof WildcardType) {
+                return rawClass(((WildcardType) type).getUpperBounds()[0]);
+            }
+            if (type instanceof TypeVariable) {
+                return rawClass(((TypeVariable<?>) type).getBounds()[0]);
+            }
+            return Object.class;
         }
-        
-        return instance;
     }
-    
+
     /**
-     * Cherche un champ dans la classe (y compris les champs hérités)
+     * Constructeur et champs modifiables d'une classe (hérités compris, le plus spécifique gagne)
      */
-    private static Field findField(Class<?> clazz, String fieldName) {
-        try {
-            return clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            if (clazz.getSuperclass() != null) {
-                return findField(clazz.getSuperclass(), fieldName);
+    private static final class BeanDescriptor {
+        final Class<?> type;
+        final Constructor<?> constructor;
+        final Map<String, FieldBinding> fields = new HashMap<>();
+
+        BeanDescriptor(Class<?> type) {
+            Constructor<?> found;
+            try {
+                found = type.getDeclaredConstructor();
+                found.setAccessible(true);
+            } catch (NoSuchMethodException | RuntimeException e) {
+                found = null;
+            }
+            this.type = type;
+            this.constructor = found;
+
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    fields.putIfAbsent(field.getName(), new FieldBinding(field));
+                }
+            }
+        }
+
+        /**
+         * Nouvelle instance ; un type sans constructeur sans argument accessible est une erreur
+         * de la classe liée, pas de la requête : IllegalStateException (500, journalisée)
+         */
+        Object newInstance() {
+            if (constructor == null) {
+                throw new IllegalStateException("Pas de constructeur sans argument accessible pour " + type.getName());
+            }
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Instanciation impossible de " + type.getName(), e);
             }
-            return null;
         }
     }
-    
+
     /**
-     * Vérifie si un type est primitif ou wrapper
+     * Accès en écriture à un champ : VarHandle résolu une fois, Field accessible à défaut
      */
-    private static boolean isPrimitiveOrWrapper(Class<?> type) {
-        return type.isPrimitive() ||
-               type == Integer.class ||
-               type == Long.class ||
-               type == Double.class ||
-               type == Float.class ||
-               type == Boolean.class ||
-               type == Character.class ||
-               type == Byte.class ||
-               type == Short.class;
+    private static final class FieldBinding {
+        final Class<?> type;
+        final TypePlan plan;
+        final VarHandle handle;
+        final Field field;
+
+        FieldBinding(Field field) {
+            this.type = field.getType();
+            this.plan = TypePlan.of(field.getGenericType());
+            VarHandle resolved = null;
+            try {
+                resolved = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+            } catch (IllegalAccessException | RuntimeException e) {
+                field.setAccessible(true);
+            }
+            this.handle = resolved;
+            this.field = resolved == null ? field : null;
+        }
+
+        void set(Object target, Object value) {
+            if (handle != null) {
+                handle.set(target, value);
+                return;
+            }
+            try {
+                field.set(target, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
     }
 }
@@ -0,0 +1,427 @@
+package framework.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Sessions sérialisées hors du tas Java, dans des ByteBuffer directs : le tas ne porte plus
+ * qu'un petit objet par session, quel que soit le volume des attributs.
+ *
+ * Chaque attribut est sérialisé séparément, ce qui permet de ne désérialiser que les clés lues.
+ * Une écriture ne touche que les attributs modifiés : réécrits en place s'ils gardent leur taille,
+ * sinon le tampon est compacté sur lui-même quand il a la place, et un tampon plus grand (avec 25 %
+ * de marge) n'est alloué que s'il ne l'a pas. Les autres attributs sont déplacés octet pour octet.
+ * Format d'une session : nombre d'attributs, puis pour chacun [longueur clé][clé UTF-8][longueur valeur][valeur].
+ *
+ * Paramètres de app.properties :
+ *   SESSION_COOKIE        nom du cookie (défaut : FSESSIONID)
+ *   SESSION_TTL_SECONDS   expiration après inactivité (défaut : 1800)
+ *   SESSION_MAX_BYTES     volume hors tas maximal, -1 = illimité (défaut : 64 Mo) ; au-delà -> 503
+ *
+ * Les valeurs doivent être Serializable. Le stockage est local à la JVM.
+ */
+public class OffHeapSessionStore implements SessionStore {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(4).asReadOnlyBuffer();
+
+    private final String cookieName;
+    private final long ttlNanos;
+    private final int ttlSeconds;
+    private final long maxBytes;
+    private final Map<String, Slot> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL);
+    private final SecureRandom random = new SecureRandom();
+
+    public OffHeapSessionStore(ProjectConfig config) {
+        this.cookieName = config.getProperty("SESSION_COOKIE", "FSESSIONID").trim();
+        this.ttlSeconds = config.getInt("SESSION_TTL_SECONDS", 1800);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxBytes = config.getLong("SESSION_MAX_BYTES", 64L * 1024 * 1024);
+    }
+
+    @Override
+    public Handle open(HttpServletRequest req, HttpServletResponse rep, boolean create) {
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        String id = sessionId(req);
+        Slot slot = id == null ? null : sessions.get(id);
+        if (slot != null && slot.isExpired(now)) {
+            discard(id, slot);
+            slot = null;
+        }
+
+        if (slot == null) {
+            if (!create) {
+                return null;
+            }
+            id = newId();
+            slot = new Slot();
+            sessions.put(id, slot);
+            rep.addCookie(cookie(req, id, -1));
+        }
+        slot.expiresAt = now + ttlNanos;
+        return new OffHeapHandle(id, slot, req, rep);
+    }
+
+    /**
+     * Nombre de sessions actives (expirées non encore purgées comprises)
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private String sessionId(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookie.getName().equals(cookieName)) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private Cookie cookie(HttpServletRequest req, String value, int maxAge) {
+        Cookie cookie = new Cookie(cookieName, value);
+        String path = req.getContextPath();
+        cookie.setPath(path == null || path.isEmpty() ? "/" : path);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(req.isSecure());
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+
+    private void discard(String id, Slot slot) {
+        if (sessions.remove(id, slot)) {
+            synchronized (slot) {
+                usedBytes.addAndGet(-weight(slot.data));
+                slot.data = EMPTY;
+            }
+        }
+    }
+
+    /**
+     * Purge des sessions expirées, au plus une fois par minute, par la requête qui passe
+     */
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL)) {
+            return;
+        }
+        sessions.forEach((id, slot) -> {
+            if (slot.isExpired(now)) {
+                discard(id, slot);
+            }
+        });
+    }
+
+    /**
+     * Plafond souple : vérifié avant l'écriture, hors de tout verrou de session
+     */
+    private void checkCapacity() {
+        if (maxBytes < 0 || usedBytes.get() <= maxBytes) {
+            return;
+        }
+        nextSweep.set(System.nanoTime());
+        sweepIfDue(System.nanoTime());
+        if (usedBytes.get() > maxBytes) {
+            throw new HttpStatusException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Capacité des sessions atteinte")
+                    .header("Retry-After", String.valueOf(Math.max(1, ttlSeconds / 10)));
+        }
+    }
+
+    private static int weight(ByteBuffer data) {
+        return data == EMPTY ? 0 : data.capacity();
+    }
+
+    private static final class Slot {
+        ByteBuffer data = EMPTY;
+        volatile long expiresAt;
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+
+    private final class OffHeapHandle implements Handle {
+        private final String id;
+        private final Slot slot;
+        private final HttpServletRequest req;
+        private final HttpServletResponse rep;
+
+        OffHeapHandle(String id, Slot slot, HttpServletRequest req, HttpServletResponse rep) {
+            this.id = id;
+            this.slot = slot;
+            this.req = req;
+            this.rep = rep;
+        }
+
+        @Override
+        public Object load(String key) {
+            byte[] value;
+            synchronized (slot) {
+                value = find(slot.data.duplicate(), key.getBytes(StandardCharsets.UTF_8));
+            }
+            return value == null ? null : deserialize(value);
+        }
+
+        @Override
+        public void store(Map<String, Object> changes) {
+            byte[][] keys = new byte[changes.size()][];
+            byte[][] values = new byte[changes.size()][];
+            int i = 0;
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                keys[i] = encodeKey(change.getKey());
+                values[i] = change.getValue() == null ? null : serialize(change.getKey(), change.getValue());
+                i++;
+            }
+            checkCapacity();
+
+            synchronized (slot) {
+                if (sessions.get(id) != slot) {
+                    // Session invalidée ou expirée entre-temps
+                    return;
+                }
+                ByteBuffer data = patch(slot.data, keys, values);
+                if (data != slot.data) {
+                    usedBytes.addAndGet(weight(data) - weight(slot.data));
+                    slot.data = data;
+                }
+            }
+        }
+
+        @Override
+        public void invalidate() {
+            discard(id, slot);
+            if (!rep.isCommitted()) {
+                rep.addCookie(cookie(req, "", 0));
+            }
+        }
+    }
+
+    // GESTION FORMAT
+
+    private static byte[] find(ByteBuffer data, byte[] key) {
+        data.rewind();
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            int keyLength = data.getShort() & 0xFFFF;
+            boolean same = keyLength == key.length;
+            for (int k = 0; k < keyLength; k++) {
+                byte b = data.get();
+                same = same && b == key[k];
+            }
+            int valueLength = data.getInt();
+            if (same) {
+                byte[] value = new byte[valueLength];
+                data.get(value);
+                return value;
+            }
+            data.position(data.position() + valueLength);
+        }
+        return null;
+    }
+
+    /**
+     * Applique les changements (valeur null = suppression) au tampon d'une session et retourne
+     * le tampon à conserver : le même s'il a suffi, un nouveau sinon, EMPTY s'il ne reste rien
+     */
+    static ByteBuffer patch(ByteBuffer data, byte[][] keys, byte[][] values) {
+        int count = data.getInt(0);
+        int[] offsets = new int[count + 1];
+        int[] changes = new int[count];
+        boolean[] existing = new boolean[keys.length];
+        boolean inPlace = true;
+
+        // Un seul parcours : position de chaque attribut et changement qui le concerne
+        int position = 4;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = position;
+            int keyLength = data.getShort(position) & 0xFFFF;
+            int valueLength = data.getInt(position + 2 + keyLength);
+            int change = indexOf(data, position + 2, keyLength, keys);
+            changes[i] = change;
+            if (change >= 0) {
+                existing[change] = true;
+                inPlace &= values[change] != null && values[change].length == valueLength;
+            }
+            position += 2 + keyLength + 4 + valueLength;
+        }
+        offsets[count] = position;
+        for (int c = 0; c < keys.length; c++) {
+            inPlace &= existing[c] || values[c] == null;
+        }
+
+        if (inPlace) {
+            // Mêmes clés, mêmes tailles : seules les valeurs changent
+            for (int i = 0; i < count; i++) {
+                if (changes[i] >= 0) {
+                    int keyLength = data.getShort(offsets[i]) & 0xFFFF;
+                    data.put(offsets[i] + 2 + keyLength + 4, values[changes[i]]);
+                }
+            }
+            return data;
+        }
+
+        int newCount = 0;
+        int size = 4;
+        for (int i = 0; i < count; i++) {
+            if (changes[i] < 0) {
+                newCount++;
+                size += offsets[i + 1] - offsets[i];
+            }
+        }
+        for (int c = 0; c < keys.length; c++) {
+            if (values[c] != null) {
+                newCount++;
+                size += 2 + keys[c].length + 4 + values[c].length;
+            }
+        }
+        if (newCount == 0) {
+            return EMPTY;
+        }
+
+        // Compactage sur place si la place suffit (et que le tampon n'est pas devenu 4 fois trop grand)
+        boolean reuse = data != EMPTY && size <= data.capacity() && size >= data.capacity() / 4;
+        ByteBuffer target = reuse ? data.clear() : ByteBuffer.allocateDirect(size + size / 4);
+        int out = 4;
+        for (int i = 0; i < count; i++) {
+            if (changes[i] < 0) {
+                int length = offsets[i + 1] - offsets[i];
+                move(data, offsets[i], target, out, length);
+                out += length;
+            }
+        }
+        for (int c = 0; c < keys.length; c++) {
+            if (values[c] != null) {
+                target.putShort(out, (short) keys[c].length);
+                target.put(out + 2, keys[c]);
+                target.putInt(out + 2 + keys[c].length, values[c].length);
+                target.put(out + 2 + keys[c].length + 4, values[c]);
+                out += 2 + keys[c].length + 4 + values[c].length;
+            }
+        }
+        target.putInt(0, newCount);
+        target.limit(size);
+        return target;
+    }
+
+    private static int indexOf(ByteBuffer data, int position, int length, byte[][] keys) {
+        for (int c = 0; c < keys.length; c++) {
+            if (keys[c].length == length && sameBytes(data, position, keys[c])) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean sameBytes(ByteBuffer data, int position, byte[] key) {
+        for (int k = 0; k < key.length; k++) {
+            if (data.get(position + k) != key[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copie d'une zone ; dans le même tampon, la destination n'est jamais après la source
+     * (compactage), donc une copie par blocs du début vers la fin est sûre
+     */
+    private static void move(ByteBuffer source, int from, ByteBuffer target, int to, int length) {
+        if (source != target) {
+            target.put(to, source, from, length);
+            return;
+        }
+        if (from == to) {
+            return;
+        }
+        byte[] chunk = new byte[Math.min(length, 4096)];
+        for (int done = 0; done < length; done += chunk.length) {
+            int n = Math.min(chunk.length, length - done);
+            source.get(from + done, chunk, 0, n);
+            target.put(to + done, chunk, 0, n);
+        }
+    }
+
+    private static byte[] encodeKey(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Clé de session trop longue : " + key);
+        }
+        return bytes;
+    }
+
+    private static byte[] serialize(String key, Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("Attribut de session non sérialisable : " + key + " (" + e.getMessage() + ")");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] value) {
+        try (ObjectInputStream input = new ContextObjectInputStream(new ByteArrayInputStream(value))) {
+            return input.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Classe d'attribut de session introuvable : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Résout les classes avec le chargeur de l'application web
+     */
+    private static final class ContextObjectInputStream extends ObjectInputStream {
+        ContextObjectInputStream(InputStream input) throws IOException {
+            super(input);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, loader);
+                } catch (ClassNotFoundException e) {
+                    // Types primitifs et classes du JDK : résolution par défaut
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
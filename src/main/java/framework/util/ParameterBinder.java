@@ -0,0 +1,276 @@
+package framework.util;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+
+import framework.annotation.RequestBody;
+import framework.annotation.RequestParam;
+import framework.models.UploadedFile;
+
+/**
+ * Compile, au démarrage, le plan de liaison d'une méthode de contrôleur :
+ * un résolveur par paramètre. Toute l'introspection (types génériques,
+ * annotations, choix du convertisseur) est faite ici une seule fois.
+ */
+public class ParameterBinder {
+
+    private final Uploads uploads;
+    private final RequestBodies bodies;
+    private final ObjectMapper.Limits formLimits;
+    private final Executor executor;
+    private final SessionStore sessionStore;
+
+    public ParameterBinder(ProjectConfig config) {
+        this(config, null, new ContainerSessionStore());
+    }
+
+    /**
+     * @param executor exécuteur injecté dans les paramètres Executor / ExecutorService des contrôleurs
+     * @param sessionStore stockage des sessions derrière FrameworkSession
+     */
+    public ParameterBinder(ProjectConfig config, Executor executor, SessionStore sessionStore) {
+        this(config, executor, sessionStore, new JacksonCodec(config));
+    }
+
+    /**
+     * @param jsonCodec codec partagé, dont l'ObjectReader lit les corps @RequestBody
+     */
+    public ParameterBinder(ProjectConfig config, Executor executor, SessionStore sessionStore, JsonCodec jsonCodec) {
+        this.uploads = new Uploads(config);
+        this.bodies = new RequestBodies(config, jsonCodec);
+        this.formLimits = ObjectMapper.Limits.fromConfig(config);
+        this.executor = executor;
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Construit le tableau de résolveurs, dans l'ordre des paramètres de la méthode
+     */
+    public ParameterResolver[] compile(Method method) {
+        Parameter[] params = method.getParameters();
+        ParameterResolver[] resolvers = new ParameterResolver[params.length];
+        for (int i = 0; i < params.length; i++) {
+            resolvers[i] = compile(params[i]);
+        }
+        return resolvers;
+    }
+
+    private ParameterResolver compile(Parameter param) {
+        Class<?> type = param.getType();
+        Type genericType = param.getParameterizedType();
+
+        // GESTION CORPS JSON (@RequestBody)
+        if (param.isAnnotationPresent(RequestBody.class)) {
+            return bodies.compile(param);
+        }
+
+        // GESTION DES SESSIONS
+        if (type.equals(FrameworkSession.class)) {
+            return (req, rep, pathVariables) -> FrameworkSession.of(req, rep, sessionStore);
+        }
+
+        // GESTION ASYNCHRONE : l'exécuteur du framework, pour composer des CompletableFuture
+        if (executor != null && type.isInstance(executor) && Executor.class.isAssignableFrom(type)) {
+            return (req, rep, pathVariables) -> executor;
+        }
+
+        // GESTION DES FICHIERS (UploadedFile, List<UploadedFile>)
+        if (type.equals(UploadedFile.class)) {
+            String name = nameOf(param);
+            return (req, rep, pathVariables) -> {
+                for (Part part : uploads.fileParts(req)) {
+                    if (part.getName().equals(name)) {
+                        return new UploadedFile(part);
+                    }
+                }
+                return null;
+            };
+        }
+        if ((type.equals(List.class) || type.equals(Collection.class)) && typeArgument(genericType, 0) == UploadedFile.class) {
+            String name = nameOf(param);
+            return (req, rep, pathVariables) -> {
+                List<UploadedFile> files = new ArrayList<>();
+                for (Part part : uploads.fileParts(req)) {
+                    if (part.getName().equals(name)) {
+                        files.add(new UploadedFile(part));
+                    }
+                }
+                return files;
+            };
+        }
+
+        // GESTION DES MAPS (Parameters ou Uploads)
+        if (type.equals(Map.class)) {
+            Type valueType = typeArgument(genericType, 1);
+
+            // Fichiers paresseux -> Map<String, UploadedFile>
+            if (valueType == UploadedFile.class) {
+                return (req, rep, pathVariables) -> uploadedFileMap(req);
+            }
+            // Fichiers paresseux multiples -> Map<String, List<UploadedFile>>
+            if (isListOf(valueType, UploadedFile.class)) {
+                return (req, rep, pathVariables) -> multiUploadedFileMap(req);
+            }
+            // CAS 1 : Upload Simple -> Map<String, byte[]>
+            if (valueType == byte[].class) {
+                return (req, rep, pathVariables) -> fileMap(req);
+            }
+            // CAS 2 : Upload Multiple -> Map<String, List<byte[]>>
+            if (isListOf(valueType, byte[].class)) {
+                return (req, rep, pathVariables) -> multiFileMap(req);
+            }
+            // CAS 3 : Paramètres classiques -> Map<String, Object[]>
+            return (req, rep, pathVariables) -> convertedParameterMap(req);
+        }
+
+        ParameterResolver scalar = scalar(param);
+
+        // GESTION OBJETS COMPLEXES : si aucun paramètre "nom.xxx" n'est présent,
+        // on retombe sur la résolution simple comme auparavant
+        if (Converters.forType(type) == null) {
+            String prefix = param.getName();
+            ObjectMapper.Plan plan = ObjectMapper.plan(genericType);
+            return (req, rep, pathVariables) -> {
+                // Valeur invalide -> 400 ; classe impossible à lier -> 500 journalisée par FrontServlet
+                Object mappedObject = ObjectMapper.mapToObject(req.getParameterMap(), plan, prefix, formLimits);
+                if (mappedObject != null) {
+                    return mappedObject;
+                }
+                return scalar.resolve(req, rep, pathVariables);
+            };
+        }
+
+        return scalar;
+    }
+
+    /**
+     * GESTION TYPES SIMPLES (String, int, LocalDate, enum...) : le convertisseur est choisi ici une fois pour toutes
+     */
+    private static ParameterResolver scalar(Parameter param) {
+        Class<?> type = param.getType();
+        Converter<?> found = Converters.forType(type);
+        // Type sans convertisseur : la valeur brute est transmise, comme auparavant
+        Converter<?> converter = found != null ? found : value -> value;
+        boolean primitive = type.isPrimitive();
+        String name = nameOf(param);
+        boolean requestParamFirst = param.isAnnotationPresent(RequestParam.class);
+
+        return (req, rep, pathVariables) -> {
+            String value;
+            if (requestParamFirst) {
+                value = req.getParameter(name);
+                if (value == null) {
+                    value = pathVariables.get(name);
+                }
+            } else {
+                value = pathVariables.get(name);
+                if (value == null) {
+                    value = req.getParameter(name);
+                }
+            }
+
+            if (value == null) {
+                if (primitive) {
+                    throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Paramètre requis manquant : " + name);
+                }
+                return null;
+            }
+            Object converted = converter.convert(value);
+            if (converted == null) {
+                throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST,
+                        "Valeur invalide pour le paramètre " + name + " : " + value);
+            }
+            return converted;
+        };
+    }
+
+    private Map<String, byte[]> fileMap(HttpServletRequest req) throws IOException, ServletException {
+        Map<String, byte[]> fileMap = new HashMap<>();
+        for (Part part : uploads.fileParts(req)) {
+            fileMap.put(part.getName(), uploads.readInMemory(part));
+        }
+        return fileMap;
+    }
+
+    private Map<String, List<byte[]>> multiFileMap(HttpServletRequest req) throws IOException, ServletException {
+        Map<String, List<byte[]>> multiFileMap = new HashMap<>();
+        for (Part part : uploads.fileParts(req)) {
+            multiFileMap.computeIfAbsent(part.getName(), k -> new ArrayList<>()).add(uploads.readInMemory(part));
+        }
+        return multiFileMap;
+    }
+
+    private Map<String, UploadedFile> uploadedFileMap(HttpServletRequest req) throws IOException, ServletException {
+        Map<String, UploadedFile> fileMap = new HashMap<>();
+        for (Part part : uploads.fileParts(req)) {
+            fileMap.putIfAbsent(part.getName(), new UploadedFile(part));
+        }
+        return fileMap;
+    }
+
+    private Map<String, List<UploadedFile>> multiUploadedFileMap(HttpServletRequest req) throws IOException, ServletException {
+        Map<String, List<UploadedFile>> multiFileMap = new HashMap<>();
+        for (Part part : uploads.fileParts(req)) {
+            multiFileMap.computeIfAbsent(part.getName(), k -> new ArrayList<>()).add(new UploadedFile(part));
+        }
+        return multiFileMap;
+    }
+
+    private static Map<String, Object[]> convertedParameterMap(HttpServletRequest req) {
+        Map<String, String[]> rawParameterMap = req.getParameterMap();
+        Map<String, Object[]> convertedParameterMap = new HashMap<>(rawParameterMap.size() * 2);
+        for (Map.Entry<String, String[]> entry : rawParameterMap.entrySet()) {
+            String[] rawValues = entry.getValue();
+            Object[] convertedValues = new Object[rawValues.length];
+            for (int j = 0; j < rawValues.length; j++) {
+                convertedValues[j] = Convertor.detectAndCastValue(rawValues[j]);
+            }
+            convertedParameterMap.put(entry.getKey(), convertedValues);
+        }
+        return convertedParameterMap;
+    }
+
+    /**
+     * Nom de liaison : valeur de @RequestParam si renseignée, sinon nom du paramètre
+     */
+    private static String nameOf(Parameter param) {
+        RequestParam requestParam = param.getAnnotation(RequestParam.class);
+        if (requestParam != null && !requestParam.value().isEmpty()) {
+            return requestParam.value();
+        }
+        return param.getName();
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < args.length) {
+                return args[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Vérifie si le type donné correspond exactement à List<elementType>
+     */
+    private static boolean isListOf(Type type, Class<?> elementType) {
+        return type instanceof ParameterizedType
+                && ((ParameterizedType) type).getRawType().equals(List.class)
+                && typeArgument(type, 0) == elementType;
+    }
+}
@@ -0,0 +1,16 @@
+package framework.util;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Résout la valeur d'un paramètre de méthode de contrôleur pour une requête.
+ * Les résolveurs sont construits une seule fois par ParameterBinder au démarrage.
+ */
+@FunctionalInterface
+public interface ParameterResolver {
+
+    Object resolve(HttpServletRequest req, HttpServletResponse rep, Map<String, String> pathVariables) throws Exception;
+}
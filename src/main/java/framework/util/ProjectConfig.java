@@ -1,98 +1,390 @@
 package framework.util;
 
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Configuration du projet (app.properties).
+ *
+ * Les valeurs forment un instantané immuable publié par une référence volatile :
+ * les lectures ne prennent aucun verrou, et les accesseurs typés (getInt, getLong,
+ * getDuration, getList...) ne convertissent chaque clé qu'une fois par instantané.
+ *
+ * Avec CONFIG_HOT_RELOAD=true, FrontServlet surveille le fichier (WatchService) :
+ * chaque modification remplace l'instantané d'un bloc, puis prévient les écouteurs
+ * enregistrés par addReloadListener(). Les valeurs déjà lues dans init() ne changent pas
+ * d'elles-mêmes ; seuls les composants qui relisent la configuration ou s'abonnent en profitent.
+ */
 public class ProjectConfig {
-    
-    private Properties properties;
-    private String configFilePath;
-    
+
+    // Laisse un éditeur ou une copie finir d'écrire avant de relire le fichier
+    private static final long RELOAD_DELAY_MS = 200;
+    private static final Object MISSING = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+    private Map<String, String> fileValues = Collections.emptyMap();
+    private final Map<String, String> overrides = new HashMap<>();
+    private final List<Consumer<ProjectConfig>> reloadListeners = new CopyOnWriteArrayList<>();
+    private final String configFilePath;
+    private final boolean classpath;
+    private Path watchedFile;
+    private WatchService watchService;
+
     /**
      * Constructeur qui charge le fichier de configuration depuis le classpath
      */
     public ProjectConfig() {
-        this.properties = new Properties();
         this.configFilePath = "app.properties";
-        loadFromClasspath();
+        this.classpath = true;
+        publish(loadFromClasspath());
     }
-    
+
     /**
      * Constructeur avec chemin personnalisé
      */
     public ProjectConfig(String configPath) {
-        this.properties = new Properties();
         this.configFilePath = configPath;
-        loadFromFile();
+        this.classpath = false;
+        Properties properties = loadFromFile(Paths.get(configPath));
+        publish(properties != null ? properties : new Properties());
     }
-    
+
     /**
      * Charge la configuration depuis le classpath
      */
-    private void loadFromClasspath() {
+    private Properties loadFromClasspath() {
+        Properties properties = new Properties();
         try (InputStream input = getClass().getClassLoader().getResourceAsStream(configFilePath)) {
             if (input == null) {
                 System.out.println("Fichier de configuration non trouvé: " + configFilePath);
-                return;
+                return properties;
             }
             properties.load(input);
         } catch (IOException e) {
             e.printStackTrace();
         }
+        return properties;
     }
-    
+
     /**
-     * Charge la configuration depuis un fichier
+     * Charge la configuration depuis un fichier ; null si la lecture échoue
      */
-    private void loadFromFile() {
-        try (FileInputStream input = new FileInputStream(configFilePath)) {
+    private Properties loadFromFile(Path file) {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
             properties.load(input);
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             e.printStackTrace();
+            return null;
         }
+        return properties;
     }
-    
+
+    /**
+     * Construit et publie un nouvel instantané (valeurs du fichier + setProperty)
+     */
+    private synchronized void publish(Properties properties) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        fileValues = values;
+        republish();
+    }
+
+    private synchronized void republish() {
+        Map<String, String> values = new HashMap<>(fileValues);
+        values.putAll(overrides);
+        snapshot = new Snapshot(Collections.unmodifiableMap(values));
+    }
+
     /**
      * Récupère une propriété
      */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return snapshot.values.get(key);
     }
-    
+
     /**
      * Récupère une propriété avec une valeur par défaut
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return snapshot.values.getOrDefault(key, defaultValue);
     }
-    
+
     /**
-     * Définit une propriété
+     * Entier ; valeur absente ou vide -> défaut, valeur mal formée -> IllegalArgumentException
      */
-    public void setProperty(String key, String value) {
-        properties.setProperty(key, value);
+    public int getInt(String key, int defaultValue) {
+        Object value = typed('i', key, Integer::valueOf);
+        return value == MISSING ? defaultValue : (Integer) value;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = typed('l', key, Long::valueOf);
+        return value == MISSING ? defaultValue : (Long) value;
     }
-    
+
+    public double getDouble(String key, double defaultValue) {
+        Object value = typed('D', key, Double::valueOf);
+        return value == MISSING ? defaultValue : (Double) value;
+    }
+
+    /**
+     * Booléen, même lecture que Boolean.parseBoolean
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = typed('b', key, Boolean::valueOf);
+        return value == MISSING ? defaultValue : (Boolean) value;
+    }
+
+    /**
+     * Durée : "250ms", "30s", "5m", "2h", "1d", ISO-8601 ("PT30S"), ou nombre seul en millisecondes
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        Object value = typed('d', key, ProjectConfig::parseDuration);
+        return value == MISSING ? defaultValue : (Duration) value;
+    }
+
+    /**
+     * Liste séparée par des virgules, éléments trimés, vides ignorés ; liste vide si la clé est absente
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getList(String key) {
+        Object value = typed('L', key, ProjectConfig::parseList);
+        return value == MISSING ? Collections.emptyList() : (List<String>) value;
+    }
+
+    /**
+     * Conversion mémorisée dans l'instantané courant : une seule fois par clé et par type
+     */
+    private Object typed(char kind, String key, Function<String, Object> parser) {
+        Snapshot current = snapshot;
+        String cacheKey = kind + key;
+        Object value = current.parsed.get(cacheKey);
+        if (value != null) {
+            return value;
+        }
+        return current.parsed.computeIfAbsent(cacheKey, k -> {
+            String raw = current.values.get(key);
+            if (raw == null || raw.isBlank()) {
+                return MISSING;
+            }
+            try {
+                return parser.apply(raw.trim());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Valeur invalide pour " + key + " : " + raw, e);
+            }
+        });
+    }
+
+    /**
+     * Définit une propriété (conservée lors des rechargements du fichier)
+     */
+    public synchronized void setProperty(String key, String value) {
+        overrides.put(key, value);
+        republish();
+    }
+
+    /**
+     * Relit le fichier et publie le nouvel instantané, puis prévient les écouteurs.
+     * Fichier illisible : l'instantané courant est conservé.
+     */
+    public void reload() {
+        Path file;
+        synchronized (this) {
+            file = watchedFile;
+        }
+        Properties properties;
+        if (file != null) {
+            properties = loadFromFile(file);
+        } else {
+            properties = classpath ? loadFromClasspath() : loadFromFile(Paths.get(configFilePath));
+        }
+        if (properties == null) {
+            return;
+        }
+        publish(properties);
+        for (Consumer<ProjectConfig> listener : reloadListeners) {
+            try {
+                listener.accept(this);
+            } catch (RuntimeException e) {
+                System.err.println("Rechargement de la configuration : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Appelé après chaque rechargement du fichier
+     */
+    public void addReloadListener(Consumer<ProjectConfig> listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Démarre la surveillance du fichier (thread démon "framework-config-watch").
+     * Sans effet si le fichier n'est pas sur le disque (app.properties dans un jar).
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        Path file = locateFile();
+        if (file == null || file.getParent() == null) {
+            System.err.println("CONFIG_HOT_RELOAD ignoré : " + configFilePath + " n'est pas un fichier surveillable");
+            return;
+        }
+
+        WatchService service = file.getFileSystem().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchedFile = file;
+        watchService = service;
+
+        Thread thread = new Thread(() -> watch(service, file), "framework-config-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stopWatching() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        watchService = null;
+    }
+
+    private void watch(WatchService service, Path file) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Thread.sleep(RELOAD_DELAY_MS);
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                    System.out.println("Configuration rechargée : " + file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Surveillance arrêtée
+        }
+    }
+
+    private Path locateFile() {
+        if (!classpath) {
+            return Paths.get(configFilePath).toAbsolutePath();
+        }
+        URL url = getClass().getClassLoader().getResource(configFilePath);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
     /**
      * Sauvegarde la configuration dans un fichier
      */
     public void save(String filePath) {
+        Properties properties = new Properties();
+        properties.putAll(snapshot.values);
         try (FileOutputStream output = new FileOutputStream(filePath)) {
             properties.store(output, "Project Configuration");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-    
+
     /**
      * Affiche toutes les propriétés
      */
     public void printAll() {
-        properties.forEach((key, value) -> 
+        new TreeMap<>(snapshot.values).forEach((key, value) ->
             System.out.println(key + " = " + value)
         );
     }
-}
\ No newline at end of file
+
+    static Duration parseDuration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        int unit = 0;
+        while (unit < lower.length() && (Character.isDigit(lower.charAt(unit)) || (unit == 0 && lower.charAt(0) == '-'))) {
+            unit++;
+        }
+        long amount = Long.parseLong(lower.substring(0, unit));
+        switch (lower.substring(unit).trim()) {
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("Unité de durée inconnue : " + value);
+        }
+    }
+
+    static List<String> parseList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Valeurs immuables + conversions déjà faites pour ces valeurs
+     */
+    private static final class Snapshot {
+        final Map<String, String> values;
+        final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+        Snapshot(Map<String, String> values) {
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package framework.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+
+import framework.annotation.RequestBody;
+
+/**
+ * Liaison des paramètres @RequestBody : le JSON est lu directement depuis req.getInputStream()
+ * avec l'ObjectReader partagé du JsonCodec, spécialisé une fois par paramètre au démarrage.
+ *
+ * Clés lues dans app.properties :
+ *   REQUEST_BODY_MAX_SIZE   taille maximale d'un corps JSON en octets (défaut 10 Mo, -1 = illimitée),
+ *                           surchargeable par @RequestBody(maxSize)
+ *   REQUEST_BODY_LENIENT    accepte un corps sans Content-Type comme du JSON (défaut : false)
+ *
+ * Le plafond est contrôlé sur Content-Length puis pendant la lecture (corps chunked) : 413.
+ * Un corps non JSON donne 415, y compris sans Content-Type : un formulaire ou un fetch "no-cors"
+ * d'un autre site n'envoie pas application/json sans passer par le contrôle CORS (preflight).
+ * Un JSON mal formé donne 400.
+ */
+public class RequestBodies {
+
+    private final ObjectReader reader;
+    private final long maxSize;
+    private final boolean lenient;
+
+    public RequestBodies(ProjectConfig config, JsonCodec codec) {
+        this.reader = codec.reader();
+        this.maxSize = config.getLong("REQUEST_BODY_MAX_SIZE", 10L * 1024 * 1024);
+        this.lenient = config.getBoolean("REQUEST_BODY_LENIENT", false);
+    }
+
+    /**
+     * Résolveur du paramètre : type simple, bean, collection (lue en entier),
+     * ou Iterator / MappingIterator / Stream (lus au fil de l'eau)
+     */
+    public ParameterResolver compile(Parameter param) {
+        RequestBody annotation = param.getAnnotation(RequestBody.class);
+        boolean required = annotation.required();
+        long limit = annotation.maxSize() == RequestBody.GLOBAL_MAX_SIZE ? maxSize : annotation.maxSize();
+        Class<?> type = param.getType();
+        Type genericType = param.getParameterizedType();
+
+        if (type == Iterator.class || type == MappingIterator.class || type == Stream.class) {
+            ObjectReader elementReader = reader.forType(reader.getTypeFactory().constructType(elementType(genericType)));
+            boolean stream = type == Stream.class;
+            return (req, rep, pathVariables) -> {
+                JsonParser parser = open(req, limit, required);
+                if (parser == null) {
+                    return null;
+                }
+                Iterator<Object> values = new BodyIterator(readValues(elementReader, parser));
+                if (!stream) {
+                    return values;
+                }
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED), false);
+            };
+        }
+
+        // Collection : lecture élément par élément, sans arbre JSON intermédiaire
+        if ((type == List.class || type == Collection.class) && genericType instanceof ParameterizedType) {
+            ObjectReader elementReader = reader.forType(reader.getTypeFactory().constructType(elementType(genericType)));
+            return (req, rep, pathVariables) -> {
+                JsonParser parser = open(req, limit, required);
+                if (parser == null) {
+                    return null;
+                }
+                List<Object> values = new ArrayList<>();
+                Iterator<Object> iterator = new BodyIterator(readValues(elementReader, parser));
+                while (iterator.hasNext()) {
+                    values.add(iterator.next());
+                }
+                return values;
+            };
+        }
+
+        ObjectReader valueReader = reader.forType(reader.getTypeFactory().constructType(genericType));
+        return (req, rep, pathVariables) -> {
+            JsonParser parser = open(req, limit, required);
+            if (parser == null) {
+                return null;
+            }
+            try {
+                return valueReader.readValue(parser);
+            } catch (JsonProcessingException e) {
+                throw translate(e);
+            }
+        };
+    }
+
+    /**
+     * Contrôles (type, taille) puis parseur positionné sur le premier jeton ; null si le corps est vide
+     */
+    private JsonParser open(HttpServletRequest req, long limit, boolean required) throws IOException {
+        String contentType = req.getContentType();
+        if (contentType == null ? !lenient && hasBody(req) : !isJson(contentType)) {
+            throw unsupported(contentType);
+        }
+        long contentLength = req.getContentLengthLong();
+        if (limit >= 0 && contentLength > limit) {
+            throw tooLarge(limit);
+        }
+
+        InputStream input = limit >= 0 ? new LimitedInputStream(req.getInputStream(), limit) : req.getInputStream();
+        JsonParser parser;
+        try {
+            parser = reader.createParser(input);
+            if (parser.nextToken() != null) {
+                return parser;
+            }
+        } catch (JsonProcessingException e) {
+            throw translate(e);
+        }
+        if (required) {
+            throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Corps de requête JSON manquant");
+        }
+        return null;
+    }
+
+    private static MappingIterator<Object> readValues(ObjectReader elementReader, JsonParser parser) throws IOException {
+        // Parseur fourni par l'appelant : Jackson ne déroule le tableau englobant que si on retire son jeton
+        if (parser.isExpectedStartArrayToken()) {
+            parser.clearCurrentToken();
+        }
+        try {
+            return elementReader.readValues(parser);
+        } catch (JsonProcessingException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Corps annoncé par Content-Length ou par un envoi chunked
+     */
+    static boolean hasBody(HttpServletRequest req) {
+        return req.getContentLengthLong() > 0 || req.getHeader("Transfer-Encoding") != null;
+    }
+
+    static HttpStatusException unsupported(String contentType) {
+        return new HttpStatusException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                (contentType == null ? "Content-Type absent" : "Type de contenu non supporté : " + contentType)
+                        + " (application/json attendu)");
+    }
+
+    static boolean isJson(String contentType) {
+        int end = contentType.indexOf(';');
+        String mime = (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase(Locale.ROOT);
+        return mime.equals("application/json") || (mime.startsWith("application/") && mime.endsWith("+json"));
+    }
+
+    private static Type elementType(Type type) {
+        if (type instanceof ParameterizedType) {
+            return ((ParameterizedType) type).getActualTypeArguments()[0];
+        }
+        return Object.class;
+    }
+
+    /**
+     * Jackson enveloppe les exceptions levées pendant la lecture : on retrouve le 413
+     * du flux borné, sinon le corps est mal formé (400)
+     */
+    private static HttpStatusException translate(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusException) {
+                return (HttpStatusException) cause;
+            }
+        }
+        String message = error instanceof JsonProcessingException
+                ? ((JsonProcessingException) error).getOriginalMessage() : error.getMessage();
+        return new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Corps JSON invalide : " + message);
+    }
+
+    private static HttpStatusException tooLarge(long limit) {
+        return new HttpStatusException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Corps de requête trop volumineux (max " + limit + " octets)");
+    }
+
+    /**
+     * Itérateur sur le tableau JSON : les erreurs de lecture en cours de parcours
+     * deviennent des réponses 400 / 413 au lieu d'une Erreur Serveur
+     */
+    private static class BodyIterator implements Iterator<Object> {
+        private final MappingIterator<Object> delegate;
+
+        BodyIterator(MappingIterator<Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return delegate.hasNext();
+            } catch (RuntimeJsonMappingException e) {
+                throw translate(e);
+            } catch (RuntimeException e) {
+                throw e.getCause() instanceof IOException ? translate(e.getCause()) : e;
+            }
+        }
+
+        @Override
+        public Object next() {
+            try {
+                return delegate.next();
+            } catch (RuntimeJsonMappingException e) {
+                throw translate(e);
+            } catch (RuntimeException e) {
+                throw e.getCause() instanceof IOException ? translate(e.getCause()) : e;
+            }
+        }
+    }
+
+    /**
+     * Flux borné : au-delà de la limite, 413 sans lire la suite
+     */
+    static class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > limit) {
+                throw tooLarge(limit);
+            }
+        }
+    }
+}
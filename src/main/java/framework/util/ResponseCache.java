@@ -0,0 +1,375 @@
+package framework.util;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Cache de réponses déjà sérialisées, borné en nombre d'entrées et en octets.
+ * Les lectures ne prennent aucun verrou (ConcurrentHashMap) : un accès ne fait que lever le bit
+ * "référencé" de l'entrée. L'éviction suit l'algorithme de l'horloge (seconde chance) : l'aiguille
+ * parcourt les entrées, efface les bits levés et retire la première entrée non référencée depuis
+ * son dernier passage. C'est une approximation du LRU, sans réordonner une liste à chaque lecture.
+ *
+ * Le budget en octets (Budget) peut être partagé par plusieurs caches : dépassé, il évince
+ * dans le cache qui occupe le plus d'octets, quel que soit celui qui vient d'écrire.
+ *
+ * Chargement "single-flight" : sur une clé froide, une seule requête calcule la réponse,
+ * les autres attendent son résultat (dans une limite de temps, au-delà de laquelle elles
+ * la calculent elles-mêmes, sans le cache).
+ */
+public class ResponseCache {
+
+    // Coût fixe estimé d'une entrée (objets, en-têtes), ajouté à la taille du corps et de la clé
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final int maxEntries;
+    private final Budget budget;
+    private final ConcurrentHashMap<String, Node> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private Iterator<Node> hand;
+
+    public ResponseCache(int maxEntries, long maxBytes) {
+        this(maxEntries, new Budget(maxBytes));
+    }
+
+    public ResponseCache(int maxEntries, Budget budget) {
+        this.maxEntries = maxEntries;
+        this.budget = budget;
+        budget.caches.add(this);
+    }
+
+    /**
+     * Entrée encore valide, ou null
+     */
+    public Entry get(String key) {
+        Node node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.entry.isExpired()) {
+            remove(node);
+            return null;
+        }
+        // Écriture seulement si le bit est baissé : une entrée chaude ne fait pas circuler sa ligne de cache
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.entry;
+    }
+
+    public void put(String key, Entry entry) {
+        Node node = new Node(key, entry, weight(key, entry));
+        if (budget.maxBytes >= 0 && node.weight > budget.maxBytes) {
+            return;
+        }
+        Node previous = entries.put(key, node);
+        if (previous != null) {
+            released(previous);
+        } else {
+            count.incrementAndGet();
+        }
+        bytes.addAndGet(node.weight);
+        budget.used.addAndGet(node.weight);
+
+        while (count.get() > maxEntries && evictOne()) {
+            // l'aiguille avance jusqu'à repasser sous le nombre d'entrées
+        }
+        budget.enforce();
+    }
+
+    public void clear() {
+        for (Node node : entries.values()) {
+            remove(node);
+        }
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    /**
+     * Octets occupés par ce cache (estimation : corps, clé et coût fixe des entrées)
+     */
+    public long bytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Réserve le chargement d'une clé. Retourne null si l'appelant devient le chargeur
+     * (il doit ensuite appeler release), sinon le chargement en cours à attendre.
+     * Le résultat attendu vaut null si la réponse n'a pas pu être mise en cache.
+     */
+    public CompletableFuture<Entry> claim(String key) {
+        return loading.putIfAbsent(key, new CompletableFuture<>());
+    }
+
+    /**
+     * Termine le chargement réservé par claim : stocke l'entrée (si non null) et réveille les requêtes en attente
+     */
+    public void release(String key, Entry entry) {
+        if (entry != null) {
+            put(key, entry);
+        }
+        CompletableFuture<Entry> flight = loading.remove(key);
+        if (flight != null) {
+            flight.complete(entry);
+        }
+    }
+
+    /**
+     * Un tour d'horloge : retire la première entrée non référencée (ou expirée) sous l'aiguille.
+     * Deux tours au plus : le premier a baissé tous les bits. False si le cache est vide.
+     */
+    private synchronized boolean evictOne() {
+        int limit = 2 * count.get() + 1;
+        for (int scanned = 0; scanned < limit; scanned++) {
+            if (hand == null || !hand.hasNext()) {
+                hand = entries.values().iterator();
+                if (!hand.hasNext()) {
+                    return false;
+                }
+            }
+            Node node = hand.next();
+            if (node.referenced && !node.entry.isExpired()) {
+                node.referenced = false;
+                continue;
+            }
+            if (remove(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean remove(Node node) {
+        if (!entries.remove(node.key, node)) {
+            return false;
+        }
+        count.decrementAndGet();
+        released(node);
+        return true;
+    }
+
+    private void released(Node node) {
+        bytes.addAndGet(-node.weight);
+        budget.used.addAndGet(-node.weight);
+    }
+
+    /**
+     * Poids réservé à la création : la variante deflate, produite plus tard, est comptée d'avance
+     * pour la taille de la variante gzip (quelques octets d'en-tête près)
+     */
+    private static long weight(String key, Entry entry) {
+        byte[] gzipBody = entry.getGzipBody();
+        return ENTRY_OVERHEAD + 2L * key.length() + entry.getBody().length + (gzipBody == null ? 0 : 2L * gzipBody.length);
+    }
+
+    private static final class Node {
+        final String key;
+        final Entry entry;
+        final long weight;
+        volatile boolean referenced;
+
+        Node(String key, Entry entry, long weight) {
+            this.key = key;
+            this.entry = entry;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Budget en octets partagé par un ensemble de caches (négatif = illimité).
+     * Le total reste borné quel que soit le nombre de caches : au-delà, l'éviction
+     * vise le cache le plus gros, ce qui laisse sa place à une route peu gourmande.
+     */
+    public static final class Budget {
+        private final long maxBytes;
+        private final AtomicLong used = new AtomicLong();
+        private final List<ResponseCache> caches = new CopyOnWriteArrayList<>();
+
+        public Budget(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public long getUsedBytes() {
+            return used.get();
+        }
+
+        void enforce() {
+            while (maxBytes >= 0 && used.get() > maxBytes) {
+                ResponseCache largest = null;
+                for (ResponseCache cache : caches) {
+                    if (cache.bytes.get() > 0 && (largest == null || cache.bytes.get() > largest.bytes.get())) {
+                        largest = cache;
+                    }
+                }
+                if (largest == null || !largest.evictOne()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Réponse mémorisée : statut, type, en-têtes et corps, avec son ETag.
+     * Avec la compression active, la variante gzip est calculée une fois à la création
+     * (et seulement si elle est plus petite), la variante deflate au premier client qui la demande :
+     * les réponses suivantes ne recompressent rien.
+     */
+    public static class Entry {
+        private final int status;
+        private final String contentType;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        private final byte[] gzipBody;
+        private volatile byte[] deflateBody;
+        private final String etag;
+        private final long expiresAt;
+
+        public Entry(int status, String contentType, Map<String, List<String>> headers, byte[] body, long ttlMillis) {
+            this(status, contentType, headers, body, ttlMillis, null);
+        }
+
+        public Entry(int status, String contentType, Map<String, List<String>> headers, byte[] body, long ttlMillis,
+                     Compression compression) {
+            this.status = status;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.body = body;
+            this.gzipBody = gzip(body, contentType, compression);
+            this.etag = etag(body);
+            this.expiresAt = System.nanoTime() + ttlMillis * 1_000_000L;
+        }
+
+        private static byte[] gzip(byte[] body, String contentType, Compression compression) {
+            if (compression == null || body.length < compression.getMinSize() || !compression.isCompressible(contentType)) {
+                return null;
+            }
+            byte[] compressed = compression.compress(body, Compression.GZIP);
+            return compressed.length < body.length ? compressed : null;
+        }
+
+        public int getStatus() { return status; }
+        public String getContentType() { return contentType; }
+        public Map<String, List<String>> getHeaders() { return headers; }
+        public byte[] getBody() { return body; }
+        public byte[] getGzipBody() { return gzipBody; }
+        public String getEtag() { return etag; }
+
+        public boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+
+        /**
+         * Écrit l'entrée, ou 304 si le client possède déjà cette version (If-None-Match).
+         * Derrière un CompressingResponseWrapper, la variante compressée a son propre ETag.
+         */
+        public void writeTo(HttpServletRequest req, HttpServletResponse rep) throws IOException {
+            String tag = etag;
+            String encoding = null;
+            Compression compression = null;
+            if (rep instanceof CompressingResponseWrapper) {
+                CompressingResponseWrapper compressing = (CompressingResponseWrapper) rep;
+                encoding = compressing.precompressed(contentType, body.length);
+                compression = compressing.getCompression();
+                // Variante retenue seulement si gzip a réduit le corps (deflate fait alors de même)
+                if (gzipBody == null || (!Compression.GZIP.equals(encoding) && !Compression.DEFLATE.equals(encoding))) {
+                    encoding = null;
+                }
+                if (encoding != null) {
+                    tag = Compression.variantEtag(etag, encoding);
+                }
+            }
+
+            // 304 avant de choisir ou de produire le corps : rien à compresser pour un client à jour
+            rep.setHeader("ETag", tag);
+            if (matches(req.getHeader("If-None-Match"), tag)) {
+                rep.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            byte[] payload = body;
+            if (Compression.GZIP.equals(encoding)) {
+                payload = gzipBody;
+            } else if (Compression.DEFLATE.equals(encoding)) {
+                payload = deflateBody(compression);
+            }
+
+            rep.setStatus(status);
+            if (encoding != null) {
+                rep.setHeader("Content-Encoding", encoding);
+            }
+            if (contentType != null) {
+                rep.setContentType(contentType);
+            }
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    rep.addHeader(header.getKey(), value);
+                }
+            }
+            rep.setContentLength(payload.length);
+            rep.getOutputStream().write(payload);
+        }
+
+        /**
+         * Variante deflate, compressée au premier client qui la demande puis conservée.
+         * Deux premiers accès simultanés peuvent compresser chacun : le résultat est le même.
+         */
+        private byte[] deflateBody(Compression compression) {
+            byte[] deflated = deflateBody;
+            if (deflated == null) {
+                deflated = compression.compress(body, Compression.DEFLATE);
+                deflateBody = deflated;
+            }
+            return deflated;
+        }
+
+        private static boolean matches(String ifNoneMatch, String etag) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 128 premiers bits d'un SHA-256 du corps : calculé une fois par entrée, et deux corps
+         * différents ne partagent pas d'ETag (un 304 à tort servirait une réponse périmée)
+         */
+        private static String etag(byte[] body) {
+            byte[] digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256").digest(body);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        }
+    }
+}
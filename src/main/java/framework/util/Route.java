@@ -2,11 +2,29 @@ package framework.models;
 
 import java.lang.reflect.Method;
 
+import framework.annotation.Cached;
+import framework.util.Admission;
+import framework.util.Authorizer;
+import framework.util.ControllerInvoker;
+import framework.util.Metrics;
+import framework.util.ParameterResolver;
+import framework.util.ResponseCache;
+
 public class Route {
     private Class<?> clazz;
     private Method method;
     private String methodHTTP;
     private String url;
+    private ParameterResolver[] resolvers;
+    private boolean json;
+    private ControllerInvoker invoker;
+    private boolean async;
+    private long asyncTimeout;
+    private Cached cached;
+    private ResponseCache cache;
+    private Authorizer.Rule authRule;
+    private Metrics.RouteMetrics metrics;
+    private Admission admission;
 
     public Route(Class<?> clazz, Method method, String methodHTTP, String url) {
         this.clazz = clazz;
@@ -32,4 +50,34 @@ public class Route {
 
     public String getUrl() { return url; }
     public void setUrl(String url) { this.url = url; }
+
+    public ParameterResolver[] getResolvers() { return resolvers; }
+    public void setResolvers(ParameterResolver[] resolvers) { this.resolvers = resolvers; }
+
+    public boolean isJson() { return json; }
+    public void setJson(boolean json) { this.json = json; }
+
+    public ControllerInvoker getInvoker() { return invoker; }
+    public void setInvoker(ControllerInvoker invoker) { this.invoker = invoker; }
+
+    public boolean isAsync() { return async; }
+    public void setAsync(boolean async) { this.async = async; }
+
+    public long getAsyncTimeout() { return asyncTimeout; }
+    public void setAsyncTimeout(long asyncTimeout) { this.asyncTimeout = asyncTimeout; }
+
+    public Cached getCached() { return cached; }
+    public void setCached(Cached cached) { this.cached = cached; }
+
+    public ResponseCache getCache() { return cache; }
+    public void setCache(ResponseCache cache) { this.cache = cache; }
+
+    public Authorizer.Rule getAuthRule() { return authRule; }
+    public void setAuthRule(Authorizer.Rule authRule) { this.authRule = authRule; }
+
+    public Metrics.RouteMetrics getMetrics() { return metrics; }
+    public void setMetrics(Metrics.RouteMetrics metrics) { this.metrics = metrics; }
+
+    public Admission getAdmission() { return admission; }
+    public void setAdmission(Admission admission) { this.admission = admission; }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package framework.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index des routes généré à la compilation par RouteIndexProcessor.
+ * Une ligne par route, champs séparés par des tabulations :
+ *   GET    /emp/{id}    com.app.EmpController    detail    java.lang.String,int
+ */
+public class RouteIndex {
+
+    public static final String LOCATION = "META-INF/framework/routes.idx";
+
+    /**
+     * Charge toutes les entrées des index présents dans le classpath, limitées au package racine.
+     * Retourne null si aucun index ne couvre ce package (le scan Reflections prend alors le relais).
+     */
+    public static List<Entry> load(ClassLoader classLoader, String basePackage) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        String prefix = basePackage == null || basePackage.isBlank() ? "" : basePackage.trim() + ".";
+        List<Entry> entries = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (InputStream input = resource.openStream();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Entry entry = parse(line);
+                    if (entry != null && entry.getClassName().startsWith(prefix)) {
+                        entry.source = resource.toString();
+                        entries.add(entry);
+                    }
+                }
+            }
+        }
+        return entries.isEmpty() ? null : entries;
+    }
+
+    /**
+     * Fichiers d'index d'où viennent ces entrées, sans doublon
+     */
+    public static Set<String> sources(List<Entry> entries) {
+        Set<String> sources = new LinkedHashSet<>();
+        for (Entry entry : entries) {
+            sources.add(entry.getSource());
+        }
+        return sources;
+    }
+
+    public static String format(String httpMethod, String url, String className, String methodName, List<String> parameterTypes) {
+        return httpMethod + '\t' + url + '\t' + className + '\t' + methodName + '\t' + String.join(",", parameterTypes);
+    }
+
+    /**
+     * Lit une ligne de l'index ; null pour les commentaires et lignes vides
+     */
+    public static Entry parse(String line) {
+        if (line.isBlank() || line.startsWith("#")) {
+            return null;
+        }
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Ligne d'index invalide : " + line);
+        }
+        String[] parameterTypes = fields[4].isEmpty() ? new String[0] : fields[4].split(",");
+        return new Entry(fields[0], fields[1], fields[2], fields[3], parameterTypes);
+    }
+
+    public static class Entry {
+        private final String httpMethod;
+        private final String url;
+        private final String className;
+        private final String methodName;
+        private final String[] parameterTypes;
+        private String source;
+
+        public Entry(String httpMethod, String url, String className, String methodName, String[] parameterTypes) {
+            this.httpMethod = httpMethod;
+            this.url = url;
+            this.className = className;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+        }
+
+        public String getHttpMethod() { return httpMethod; }
+        public String getUrl() { return url; }
+        public String getClassName() { return className; }
+        public String getMethodName() { return methodName; }
+        public String getSource() { return source; }
+
+        @Override
+        public String toString() {
+            return httpMethod + ' ' + url + " -> " + className + '.' + methodName + '(' + String.join(",", parameterTypes) + ')';
+        }
+
+        /**
+         * Retrouve la méthode publique correspondante dans la classe chargée
+         */
+        public Method resolve(Class<?> clazz) throws NoSuchMethodException {
+            for (Method method : clazz.getMethods()) {
+                if (!method.getName().equals(methodName) || method.getParameterCount() != parameterTypes.length) {
+                    continue;
+                }
+                Class<?>[] types = method.getParameterTypes();
+                boolean same = true;
+                for (int i = 0; i < types.length && same; i++) {
+                    same = types[i].getTypeName().equals(parameterTypes[i]);
+                }
+                if (same) {
+                    return method;
+                }
+            }
+            throw new NoSuchMethodException(className + "." + methodName + "(" + String.join(",", parameterTypes) + ")");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package framework.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import framework.models.Route;
+
+/**
+ * Routeur compilé une seule fois dans init() : arbre de segments d'URL.
+ * Les segments statiques sont des enfants indexés par table de hachage,
+ * les segments "{var}" des enfants joker. Aucun Pattern n'est compilé
+ * pendant le traitement d'une requête.
+ *
+ * Priorité à chaque niveau : statique > segment mixte ("fichier-{id}.pdf") > variable.
+ *
+ * Chaque noeud range ses routes dans un tableau indexé par l'identifiant de méthode
+ * (HttpMethods) et tient le masque des méthodes présentes : aucun test sur des chaînes
+ * pour choisir la méthode, et le calcul de Allow (405, OPTIONS) est un OU de masques.
+ */
+public class Router {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{([^/]+?)\\}");
+
+    private static final int STATIC = 0;
+    private static final int MIXED = 1;
+    private static final int WILDCARD = 2;
+
+    private final Node root = new Node(STATIC);
+    private int size;
+
+    /**
+     * Enregistre une route. En cas de doublon (même méthode, même URL), la première gagne.
+     */
+    public void add(Route route) {
+        String[] segments = split(route.getUrl());
+        String[] variableNames = new String[segments.length];
+        Node node = root;
+
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            Matcher matcher = VARIABLE.matcher(segment);
+
+            if (!matcher.find()) {
+                node = node.statics.computeIfAbsent(segment, s -> new Node(STATIC));
+            } else if (matcher.start() == 0 && matcher.end() == segment.length()) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node(WILDCARD);
+                }
+                node = node.wildcard;
+                variableNames[i] = matcher.group(1);
+            } else {
+                node = node.mixed.computeIfAbsent(segment, Router::compileMixed);
+            }
+        }
+
+        int methodId = HttpMethods.register(route.getMethodHTTP());
+        if (node.targets[methodId] == null) {
+            node.targets[methodId] = new Target(route, variableNames);
+            node.methods |= 1L << methodId;
+            size++;
+        }
+    }
+
+    /**
+     * Cherche la route correspondant au chemin. Les variables de chemin ne sont
+     * écrites dans pathVariables qu'en cas de succès.
+     */
+    public Route find(String path, String httpMethod, Map<String, String> pathVariables) {
+        return find(path, HttpMethods.id(httpMethod), pathVariables);
+    }
+
+    /**
+     * Variante avec l'identifiant de méthode déjà résolu (HttpMethods.id)
+     */
+    public Route find(String path, int methodId, Map<String, String> pathVariables) {
+        if (methodId < 0) {
+            return null;
+        }
+        String[] segments = split(path);
+        Node[] visited = new Node[segments.length];
+        Target target = match(root, segments, 0, 1L << methodId, methodId, visited);
+        if (target == null) {
+            return null;
+        }
+
+        for (int i = 0; i < segments.length; i++) {
+            Node node = visited[i];
+            if (node.kind == WILDCARD) {
+                pathVariables.put(target.variableNames[i], segments[i]);
+            } else if (node.kind == MIXED) {
+                Matcher matcher = node.pattern.matcher(segments[i]);
+                matcher.matches();
+                for (int g = 0; g < node.patternNames.length; g++) {
+                    pathVariables.put(node.patternNames[g], matcher.group(g + 1));
+                }
+            }
+        }
+        return target.route;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Masque des méthodes acceptées par ce chemin, toutes routes correspondantes confondues (0 = chemin inconnu)
+     */
+    public long allowedMethods(String path) {
+        return allowed(root, split(path), 0);
+    }
+
+    private long allowed(Node node, String[] segments, int index) {
+        if (index == segments.length) {
+            return node.methods;
+        }
+        String segment = segments[index];
+        long mask = 0;
+        Node child = node.statics.get(segment);
+        if (child != null) {
+            mask |= allowed(child, segments, index + 1);
+        }
+        if (!segment.isEmpty()) {
+            for (Node mixed : node.mixed.values()) {
+                if (mixed.pattern.matcher(segment).matches()) {
+                    mask |= allowed(mixed, segments, index + 1);
+                }
+            }
+            if (node.wildcard != null) {
+                mask |= allowed(node.wildcard, segments, index + 1);
+            }
+        }
+        return mask;
+    }
+
+    private Target match(Node node, String[] segments, int index, long methodBit, int methodId, Node[] visited) {
+        if (index == segments.length) {
+            return (node.methods & methodBit) != 0 ? node.targets[methodId] : null;
+        }
+
+        String segment = segments[index];
+        Node child = node.statics.get(segment);
+        if (child != null) {
+            visited[index] = child;
+            Target target = match(child, segments, index + 1, methodBit, methodId, visited);
+            if (target != null) {
+                return target;
+            }
+        }
+
+        // Une variable ne capture jamais un segment vide (équivalent de [^/]+)
+        if (segment.isEmpty()) {
+            return null;
+        }
+
+        for (Node mixed : node.mixed.values()) {
+            if (mixed.pattern.matcher(segment).matches()) {
+                visited[index] = mixed;
+                Target target = match(mixed, segments, index + 1, methodBit, methodId, visited);
+                if (target != null) {
+                    return target;
+                }
+            }
+        }
+
+        if (node.wildcard != null) {
+            visited[index] = node.wildcard;
+            return match(node.wildcard, segments, index + 1, methodBit, methodId, visited);
+        }
+        return null;
+    }
+
+    /**
+     * Compile un segment mélangeant texte et variables, ex: "rapport-{annee}.pdf"
+     */
+    private static Node compileMixed(String segment) {
+        Node node = new Node(MIXED);
+        StringBuilder regex = new StringBuilder();
+        List<String> names = new ArrayList<>();
+        Matcher matcher = VARIABLE.matcher(segment);
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                regex.append(Pattern.quote(segment.substring(last, matcher.start())));
+            }
+            regex.append("([^/]+)");
+            names.add(matcher.group(1));
+            last = matcher.end();
+        }
+        if (last < segment.length()) {
+            regex.append(Pattern.quote(segment.substring(last)));
+        }
+        node.pattern = Pattern.compile(regex.toString());
+        node.patternNames = names.toArray(new String[0]);
+        return node;
+    }
+
+    private static String[] split(String path) {
+        return path.split("/", -1);
+    }
+
+    private static final class Node {
+        final int kind;
+        final Map<String, Node> statics = new HashMap<>();
+        final Map<String, Node> mixed = new LinkedHashMap<>();
+        final Target[] targets = new Target[HttpMethods.MAX];
+        long methods;
+        Node wildcard;
+        Pattern pattern;
+        String[] patternNames;
+
+        Node(int kind) {
+            this.kind = kind;
+        }
+    }
+
+    private static final class Target {
+        final Route route;
+        final String[] variableNames;
+
+        Target(Route route, String[] variableNames) {
+            this.route = route;
+            this.variableNames = variableNames;
+        }
+    }
+}
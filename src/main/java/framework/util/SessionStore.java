@@ -0,0 +1,59 @@
+package framework.util;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Point d'extension pour le stockage des sessions derrière FrameworkSession.
+ * Une seule instance, créée dans init() et partagée par tous les threads.
+ *
+ * Implémentations fournies (clé SESSION_STORE de app.properties) :
+ *   container (défaut)  HttpSession du conteneur
+ *   offheap             sessions sérialisées hors du tas, avec expiration (OffHeapSessionStore)
+ * ou le nom d'une classe ayant un constructeur sans argument ou prenant un ProjectConfig.
+ */
+public interface SessionStore {
+
+    /**
+     * Session de la requête ; null si elle n'existe pas et que create vaut false.
+     * Une session créée ici doit être rattachée au client (cookie) avant le retour.
+     */
+    Handle open(HttpServletRequest req, HttpServletResponse rep, boolean create);
+
+    /**
+     * Accès aux données d'une session, pour la durée d'une requête
+     */
+    interface Handle {
+
+        /**
+         * Valeur d'un attribut, ou null ; appelée au plus une fois par clé et par requête
+         */
+        Object load(String key);
+
+        /**
+         * Écrit uniquement les attributs modifiés pendant la requête (valeur null = suppression)
+         */
+        void store(Map<String, Object> changes);
+
+        void invalidate();
+    }
+
+    static SessionStore fromConfig(ProjectConfig config) throws ReflectiveOperationException {
+        String store = config.getProperty("SESSION_STORE", "container").trim();
+        if (store.equalsIgnoreCase("container")) {
+            return new ContainerSessionStore();
+        }
+        if (store.equalsIgnoreCase("offheap")) {
+            return new OffHeapSessionStore(config);
+        }
+
+        Class<?> clazz = Class.forName(store, true, Thread.currentThread().getContextClassLoader());
+        try {
+            return (SessionStore) clazz.getDeclaredConstructor(ProjectConfig.class).newInstance(config);
+        } catch (NoSuchMethodException e) {
+            return (SessionStore) clazz.getDeclaredConstructor().newInstance();
+        }
+    }
+}
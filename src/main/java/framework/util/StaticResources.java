@@ -0,0 +1,404 @@
+package framework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Fichiers statiques servis par FrontServlet avant le routage.
+ * Paramètres de app.properties :
+ *   STATIC_PREFIXES              préfixes d'URL servis depuis le disque, ex: /static,/assets (absent = désactivé)
+ *   STATIC_BASE_DIR              répertoire racine (défaut : racine de la webapp) ; /static/app.css -> <racine>/static/app.css
+ *   STATIC_MAX_AGE               Cache-Control max-age en secondes des fichiers non empreintés (défaut : 0, revalidation)
+ *   STATIC_CACHE_MAX_FILE_SIZE   taille maximale d'un fichier gardé en mémoire (défaut : 32 Ko)
+ *   STATIC_CACHE_MAX_BYTES       budget mémoire des fichiers gardés en mémoire (défaut : 16 Mo)
+ *
+ * ETag fort (taille + date), Last-Modified, 304, plage d'octets unique (206 / 416).
+ * Les fichiers empreintés (app.3f2a9c1b.js) sont servis "immutable" pour un an.
+ * Les petits fichiers fréquents restent en mémoire (LRU) ; les autres sont copiés par blocs
+ * du fichier vers la réponse, ou confiés à sendfile (sans copie) quand le conteneur le propose (Tomcat).
+ * Un fichier absent laisse la main au routage.
+ */
+public class StaticResources {
+
+    // Coût fixe estimé d'une entrée, comme dans ResponseCache
+    private static final int ENTRY_OVERHEAD = 128;
+    // Au plus un stat() par fichier et par seconde pour détecter une modification
+    private static final long CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    // En dessous, la copie mémoire coûte moins que sendfile
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+    private static final Pattern FINGERPRINT = Pattern.compile(".*[.-][0-9a-fA-F]{8,}\\.[A-Za-z0-9]+$");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final ServletContext context;
+    private final Path baseDir;
+    private final List<String> prefixes;
+    private final String cacheControl;
+    private final long maxFileSize;
+    private final long maxBytes;
+    private final LinkedHashMap<String, StaticFile> files = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    public StaticResources(ProjectConfig config, ServletContext context, Path baseDir) {
+        this.context = context;
+        this.baseDir = baseDir.toAbsolutePath().normalize();
+        this.prefixes = new ArrayList<>();
+        for (String prefix : config.getList("STATIC_PREFIXES")) {
+            prefixes.add(prefix.endsWith("/") ? prefix : prefix + "/");
+        }
+        long maxAge = config.getLong("STATIC_MAX_AGE", 0);
+        this.cacheControl = maxAge > 0 ? "public, max-age=" + maxAge : "no-cache";
+        this.maxFileSize = config.getLong("STATIC_CACHE_MAX_FILE_SIZE", 32 * 1024);
+        this.maxBytes = config.getLong("STATIC_CACHE_MAX_BYTES", 16L * 1024 * 1024);
+    }
+
+    /**
+     * Fichiers statiques si STATIC_PREFIXES est renseigné, sinon null
+     */
+    public static StaticResources fromConfig(ProjectConfig config, ServletContext context) {
+        if (config.getList("STATIC_PREFIXES").isEmpty()) {
+            return null;
+        }
+        String baseDir = config.getProperty("STATIC_BASE_DIR");
+        if (baseDir == null || baseDir.isBlank()) {
+            baseDir = context.getRealPath("/");
+        }
+        if (baseDir == null) {
+            context.log("STATIC_PREFIXES ignoré : webapp non dépliée, renseigner STATIC_BASE_DIR");
+            return null;
+        }
+        return new StaticResources(config, context, Paths.get(baseDir.trim()));
+    }
+
+    /**
+     * Sert le fichier si le chemin relève d'un préfixe statique et existe ; false sinon (routage normal)
+     */
+    public boolean handle(HttpServletRequest req, HttpServletResponse rep, String path, boolean head) throws IOException {
+        if (!matchesPrefix(path)) {
+            return false;
+        }
+        StaticFile file = lookup(path);
+        if (file == null) {
+            return false;
+        }
+
+        rep.setHeader("ETag", file.etag);
+        rep.setDateHeader("Last-Modified", file.lastModified);
+        rep.setHeader("Cache-Control", file.immutable ? IMMUTABLE : cacheControl);
+        rep.setHeader("Accept-Ranges", "bytes");
+
+        if (notModified(req, file)) {
+            rep.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        rep.setContentType(file.contentType);
+        long start = 0;
+        long length = file.size;
+        long[] range = range(req, file);
+        if (range == UNSATISFIABLE) {
+            rep.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            rep.setHeader("Content-Range", "bytes */" + file.size);
+            return true;
+        }
+        if (range != null) {
+            start = range[0];
+            length = range[1] - range[0] + 1;
+            rep.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            rep.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + file.size);
+        }
+        rep.setContentLengthLong(length);
+        if (head || length == 0) {
+            return true;
+        }
+
+        if (file.content != null) {
+            rep.getOutputStream().write(file.content, (int) start, (int) length);
+        } else if (length >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(req.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Zéro copie : le conteneur envoie le fichier lui-même, après le retour du servlet
+            req.setAttribute("org.apache.tomcat.sendfile.filename", file.path.toString());
+            req.setAttribute("org.apache.tomcat.sendfile.start", start);
+            req.setAttribute("org.apache.tomcat.sendfile.end", start + length);
+        } else {
+            transfer(file.path, start, length, rep.getOutputStream());
+        }
+        return true;
+    }
+
+    private boolean matchesPrefix(String path) {
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fichier du cache, revalidé au plus une fois par seconde ; null si absent, répertoire ou hors racine
+     */
+    private StaticFile lookup(String path) throws IOException {
+        StaticFile cached;
+        synchronized (files) {
+            cached = files.get(path);
+        }
+        long now = System.nanoTime();
+        if (cached != null && now - cached.checkedAt < CHECK_INTERVAL) {
+            return cached;
+        }
+
+        Path file = resolve(path);
+        if (file == null) {
+            return null;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            forget(path);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (cached != null && cached.size == attributes.size() && cached.lastModified == lastModified) {
+            cached.checkedAt = now;
+            return cached;
+        }
+
+        byte[] content = attributes.size() <= maxFileSize ? Files.readAllBytes(file) : null;
+        if (content != null && content.length != attributes.size()) {
+            // Modifié pendant la lecture : on ne garde rien en mémoire pour cette fois
+            content = null;
+        }
+        String contentType = context.getMimeType(file.getFileName().toString());
+        StaticFile loaded = new StaticFile(file, attributes.size(), lastModified,
+                contentType != null ? contentType : "application/octet-stream",
+                FINGERPRINT.matcher(file.getFileName().toString()).matches(), content, now);
+        remember(path, loaded);
+        return loaded;
+    }
+
+    /**
+     * Chemin disque du fichier, ou null s'il sort de la racine ou vise WEB-INF / META-INF
+     */
+    private Path resolve(String path) {
+        // L'URI reçue est encodée (%20...) ; les contrôles de racine s'appliquent après décodage
+        String decoded;
+        try {
+            decoded = URLDecoder.decode(path.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (decoded.indexOf('\0') >= 0 || decoded.indexOf('\\') >= 0) {
+            return null;
+        }
+        // Pas de segment "." ni ".." : le fichier reste sous le préfixe demandé
+        for (String segment : decoded.split("/")) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return null;
+            }
+        }
+        Path file = baseDir.resolve(decoded.substring(1)).normalize();
+        if (!file.startsWith(baseDir) || file.equals(baseDir)) {
+            return null;
+        }
+        for (Path segment : baseDir.relativize(file)) {
+            String name = segment.toString().toUpperCase(Locale.ROOT);
+            if (name.equals("WEB-INF") || name.equals("META-INF")) {
+                return null;
+            }
+        }
+        // Pas de lien symbolique qui mènerait hors de la racine
+        try {
+            if (!file.toRealPath().startsWith(baseDir.toRealPath())) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return file;
+    }
+
+    private void remember(String path, StaticFile file) {
+        long weight = weight(path, file);
+        if (maxBytes >= 0 && weight > maxBytes) {
+            return;
+        }
+        synchronized (files) {
+            StaticFile previous = files.put(path, file);
+            if (previous != null) {
+                bytes -= weight(path, previous);
+            }
+            bytes += weight;
+
+            Iterator<Map.Entry<String, StaticFile>> eldest = files.entrySet().iterator();
+            while (eldest.hasNext() && maxBytes >= 0 && bytes > maxBytes) {
+                Map.Entry<String, StaticFile> evicted = eldest.next();
+                bytes -= weight(evicted.getKey(), evicted.getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    private void forget(String path) {
+        synchronized (files) {
+            StaticFile previous = files.remove(path);
+            if (previous != null) {
+                bytes -= weight(path, previous);
+            }
+        }
+    }
+
+    private static long weight(String path, StaticFile file) {
+        return ENTRY_OVERHEAD + 2L * path.length() + (file.content == null ? 0 : file.content.length);
+    }
+
+    /**
+     * If-None-Match d'abord, sinon If-Modified-Since (à la seconde près)
+     */
+    private static boolean notModified(HttpServletRequest req, StaticFile file) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(file.etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(req, "If-Modified-Since");
+        return ifModifiedSince >= 0 && file.lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Plage demandée [début, fin] inclusive ; null = fichier entier (pas de Range, If-Range périmé,
+     * plusieurs plages ou en-tête illisible) ; UNSATISFIABLE = 416
+     */
+    private static long[] range(HttpServletRequest req, StaticFile file) {
+        String header = req.getHeader("Range");
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange != null) {
+            if (ifRange.trim().startsWith("\"") || ifRange.trim().startsWith("W/")) {
+                if (!ifRange.trim().equals(file.etag)) {
+                    return null;
+                }
+            } else if (dateHeader(req, "If-Range") / 1000 != file.lastModified / 1000) {
+                return null;
+            }
+        }
+
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        long size = file.size;
+        Long first = dash == 0 ? null : Converters.parseLong(spec.substring(0, dash).trim(), 0, Long.MAX_VALUE);
+        Long last = dash == spec.length() - 1 ? null : Converters.parseLong(spec.substring(dash + 1).trim(), 0, Long.MAX_VALUE);
+        if ((dash > 0 && first == null) || (dash < spec.length() - 1 && last == null) || (first == null && last == null)) {
+            return null;
+        }
+
+        if (first == null) {
+            // Suffixe : les N derniers octets
+            if (last == 0 || size == 0) {
+                return UNSATISFIABLE;
+            }
+            return new long[] { Math.max(0, size - last), size - 1 };
+        }
+        if (first >= size) {
+            return UNSATISFIABLE;
+        }
+        if (last != null && last < first) {
+            return null;
+        }
+        return new long[] { first, last == null ? size - 1 : Math.min(last, size - 1) };
+    }
+
+    private static long dateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Copie par le canal du fichier. Ce n'est pas du zéro-copie : transferTo ne l'est que vers un canal
+     * de fichier ou de socket ; vers le flux du conteneur, le JDK lit par blocs dans un tampon temporaire,
+     * que le conteneur recopie dans le sien. Seul sendfile (Tomcat) évite ces copies.
+     */
+    private static void transfer(Path path, long start, long length, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(output);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    // Fichier raccourci entre le stat() et la lecture
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Métadonnées d'un fichier, et son contenu s'il est assez petit pour rester en mémoire
+     */
+    private static final class StaticFile {
+        final Path path;
+        final long size;
+        final long lastModified;
+        final String etag;
+        final String contentType;
+        final boolean immutable;
+        final byte[] content;
+        volatile long checkedAt;
+
+        StaticFile(Path path, long size, long lastModified, String contentType, boolean immutable, byte[] content, long checkedAt) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+            this.contentType = contentType;
+            this.immutable = immutable;
+            this.content = content;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
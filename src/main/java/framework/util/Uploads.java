@@ -0,0 +1,126 @@
+package framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.MultipartConfigElement;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+
+/**
+ * Accès aux fichiers multipart avec les limites de app.properties (en octets, -1 = illimité) :
+ *   UPLOAD_MAX_REQUEST_SIZE    taille maximale de la requête multipart
+ *   UPLOAD_MAX_FILE_SIZE       taille maximale d'un fichier
+ *   UPLOAD_MAX_IN_MEMORY_SIZE  taille maximale d'un fichier lié en byte[] (Map<String, byte[]>...)
+ *   UPLOAD_FILE_SIZE_THRESHOLD taille à partir de laquelle le conteneur écrit un fichier sur disque
+ *
+ * Seul le Content-Length est contrôlé avant toute lecture ; une requête multipart sans Content-Length
+ * (chunked) est refusée (411) dès que UPLOAD_MAX_REQUEST_SIZE est fixé. Pendant la lecture, c'est le
+ * conteneur qui applique les deux premières limites : multipartConfig() les reporte dans la configuration
+ * multipart du servlet (FrontServletInitializer, Launcher), avec le seuil d'écriture sur disque,
+ * sinon getParts() lit tout le corps avant les contrôles de fileParts().
+ */
+public class Uploads {
+
+    private final long maxRequestSize;
+    private final long maxFileSize;
+    private final long maxInMemorySize;
+
+    public Uploads(ProjectConfig config) {
+        this.maxRequestSize = config.getLong("UPLOAD_MAX_REQUEST_SIZE", -1);
+        this.maxFileSize = config.getLong("UPLOAD_MAX_FILE_SIZE", -1);
+        this.maxInMemorySize = config.getLong("UPLOAD_MAX_IN_MEMORY_SIZE", -1);
+    }
+
+    /**
+     * Configuration multipart du conteneur : celle de @MultipartConfig, où UPLOAD_MAX_FILE_SIZE,
+     * UPLOAD_MAX_REQUEST_SIZE et UPLOAD_FILE_SIZE_THRESHOLD remplacent maxFileSize, maxRequestSize
+     * et fileSizeThreshold quand ils sont fixés
+     */
+    public static MultipartConfigElement multipartConfig(ProjectConfig config, MultipartConfig multipart) {
+        long maxFileSize = config.getLong("UPLOAD_MAX_FILE_SIZE", multipart.maxFileSize());
+        long maxRequestSize = config.getLong("UPLOAD_MAX_REQUEST_SIZE", multipart.maxRequestSize());
+        int fileSizeThreshold = config.getInt("UPLOAD_FILE_SIZE_THRESHOLD", multipart.fileSizeThreshold());
+        return new MultipartConfigElement(multipart.location(), maxFileSize, maxRequestSize, fileSizeThreshold);
+    }
+
+    /**
+     * Retourne les parties "fichier" de la requête après contrôle des limites
+     */
+    public List<Part> fileParts(HttpServletRequest req) throws IOException, ServletException {
+        List<Part> files = new ArrayList<>();
+        if (!isMultipart(req)) {
+            return files;
+        }
+
+        long contentLength = req.getContentLengthLong();
+        if (maxRequestSize >= 0 && contentLength < 0) {
+            throw new HttpStatusException(HttpServletResponse.SC_LENGTH_REQUIRED,
+                    "Content-Length requis pour un envoi de fichiers (max " + maxRequestSize + " octets)");
+        }
+        if (maxRequestSize >= 0 && contentLength > maxRequestSize) {
+            throw tooLarge("Requête trop volumineuse (max " + maxRequestSize + " octets)");
+        }
+
+        // Dernier filet si le conteneur n'a pas reçu les limites (multipartConfig() non appliqué)
+        long total = 0;
+        try {
+            for (Part part : req.getParts()) {
+                total += Math.max(part.getSize(), 0);
+                if (maxRequestSize >= 0 && total > maxRequestSize) {
+                    throw tooLarge("Requête trop volumineuse (max " + maxRequestSize + " octets)");
+                }
+                if (isPartFile(part)) {
+                    if (maxFileSize >= 0 && part.getSize() > maxFileSize) {
+                        throw tooLarge("Fichier trop volumineux : " + part.getSubmittedFileName() + " (max " + maxFileSize + " octets)");
+                    }
+                    files.add(part);
+                }
+            }
+        } catch (IllegalStateException e) {
+            // Limites du conteneur (maxFileSize / maxRequestSize) dépassées pendant la lecture
+            throw tooLarge(e.getMessage());
+        } catch (ServletException e) {
+            // Corps multipart illisible (frontière absente, en-têtes de partie invalides)
+            throw new HttpStatusException(HttpServletResponse.SC_BAD_REQUEST, "Requête multipart invalide : " + e.getMessage());
+        }
+        return files;
+    }
+
+    /**
+     * Lit entièrement une partie, pour les liaisons historiques en byte[]
+     */
+    public byte[] readInMemory(Part part) throws IOException {
+        if (maxInMemorySize >= 0 && part.getSize() > maxInMemorySize) {
+            throw tooLarge("Fichier trop volumineux pour être chargé en mémoire : " + part.getSubmittedFileName()
+                    + " (max " + maxInMemorySize + " octets, utiliser UploadedFile)");
+        }
+        try (InputStream is = part.getInputStream()) {
+            return is.readAllBytes();
+        }
+    }
+
+    private static HttpStatusException tooLarge(String message) {
+        return new HttpStatusException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, message);
+    }
+
+    /**
+     * Vérifie si la requête est multipart
+     */
+    static boolean isMultipart(HttpServletRequest req) {
+        String contentType = req.getContentType();
+        return contentType != null && contentType.startsWith("multipart/form-data");
+    }
+
+    /**
+     * Vérifie si une "Part" est bien un fichier (et non un champ texte)
+     */
+    static boolean isPartFile(Part part) {
+        return part.getSubmittedFileName() != null && !part.getSubmittedFileName().isEmpty();
+    }
+}
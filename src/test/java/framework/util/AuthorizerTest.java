@@ -0,0 +1,177 @@
+package framework.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.Test;
+
+import framework.annotation.AuthAnnot;
+
+class AuthorizerTest {
+
+    @AuthAnnot("admin") void admin() { }
+    @AuthAnnot("user") void user() { }
+    @AuthAnnot("zeta") void zeta() { }
+    @AuthAnnot("alpha") void alpha() { }
+
+    @Test
+    void bitsDoNotDependOnRegistrationOrder() throws Exception {
+        configure("");
+        Authorizer.Rule adminFirst = Authorizer.compile(annotation("admin"));
+        Authorizer.Rule userFirst = Authorizer.compile(annotation("user"));
+        long adminMask = Authorizer.mask("admin");
+        long userMask = Authorizer.mask("user");
+
+        configure("");
+        Authorizer.compile(annotation("user"));
+        Authorizer.compile(annotation("admin"));
+        assertEquals(adminMask, Authorizer.mask("admin"));
+        assertEquals(userMask, Authorizer.mask("user"));
+        assertTrue(adminFirst.allows(adminMask));
+        assertFalse(userFirst.allows(adminMask));
+    }
+
+    @Test
+    void rulesCompiledEarlyFollowRenumbering() throws Exception {
+        configure("");
+        Authorizer.Rule zeta = Authorizer.compile(annotation("zeta"));
+        // "alpha" passe devant "zeta" : les bits de zeta changent, la règle suit
+        Authorizer.compile(annotation("alpha"));
+        assertTrue(zeta.allows(Authorizer.mask("zeta")));
+        assertFalse(zeta.allows(Authorizer.mask("alpha")));
+    }
+
+    @Test
+    void maskFromAnotherRoleTableIsRecomputed() throws Exception {
+        // Ancienne table : seul "user" existe (bit 1)
+        configure("");
+        Authorizer.compile(annotation("user"));
+        Map<String, Object> attributes = new HashMap<>();
+        FrameworkSession session = new FrameworkSession(session(attributes));
+        Authorizer.grant(session, "user");
+        Object userMask = attributes.get("role.mask");
+
+        // Redéploiement : "admin" prend le bit 1 ; le masque stocké désignerait maintenant admin
+        configure("");
+        Authorizer.Rule admin = Authorizer.compile(annotation("admin"));
+        Authorizer.compile(annotation("user"));
+
+        FrameworkSession restored = new FrameworkSession(session(attributes));
+        long granted = Authorizer.grantedMask(restored);
+        assertFalse(admin.allows(granted));
+        assertEquals(Authorizer.mask("user"), granted);
+        // Le masque est réécrit avec l'empreinte de la nouvelle table
+        assertFalse(userMask.equals(attributes.get("role.mask")));
+        assertEquals(granted, Authorizer.grantedMask(new FrameworkSession(session(attributes))));
+    }
+
+    @Test
+    void rawLongMaskIsNotTrusted() throws Exception {
+        configure("");
+        Authorizer.Rule admin = Authorizer.compile(annotation("admin"));
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("role", "user");
+        attributes.put("role.mask", -1L);
+
+        long granted = Authorizer.grantedMask(new FrameworkSession(session(attributes)));
+        assertFalse(admin.allows(granted));
+    }
+
+    @Test
+    void hierarchyChangeInvalidatesStoredMask() throws Exception {
+        configure("admin>user");
+        Authorizer.Rule user = Authorizer.compile(annotation("user"));
+        Map<String, Object> attributes = new HashMap<>();
+        Authorizer.grant(new FrameworkSession(session(attributes)), "admin");
+        assertTrue(user.allows(Authorizer.grantedMask(new FrameworkSession(session(attributes)))));
+
+        // admin n'inclut plus user : mêmes rôles, autre table
+        configure("admin,user");
+        user = Authorizer.compile(annotation("user"));
+        assertFalse(user.allows(Authorizer.grantedMask(new FrameworkSession(session(attributes)))));
+    }
+
+    @Test
+    void removedRoleRevokesStoredMask() throws Exception {
+        configure("");
+        Authorizer.Rule admin = Authorizer.compile(annotation("admin"));
+        Map<String, Object> attributes = new HashMap<>();
+        FrameworkSession session = new FrameworkSession(session(attributes));
+        Authorizer.grant(session, "admin");
+        assertTrue(admin.allows(Authorizer.grantedMask(session)));
+
+        // Déconnexion "à la main" : le masque reste en session mais ne vaut plus rien
+        session.remove("role");
+        assertEquals(0, Authorizer.grantedMask(session));
+        assertTrue(attributes.containsKey("role.mask"));
+    }
+
+    @Test
+    void demotedRoleRecomputesStoredMask() throws Exception {
+        configure("");
+        Authorizer.Rule admin = Authorizer.compile(annotation("admin"));
+        Authorizer.Rule user = Authorizer.compile(annotation("user"));
+        Map<String, Object> attributes = new HashMap<>();
+        FrameworkSession session = new FrameworkSession(session(attributes));
+        Authorizer.grant(session, "admin");
+        assertTrue(admin.allows(Authorizer.grantedMask(session)));
+
+        session.put("role", "user");
+        long granted = Authorizer.grantedMask(session);
+        assertFalse(admin.allows(granted));
+        assertTrue(user.allows(granted));
+        // Le masque réécrit correspond au nouveau rôle
+        assertEquals(granted, Authorizer.grantedMask(new FrameworkSession(session(attributes))));
+    }
+
+    @Test
+    void roleArrayKeepsStoredMask() throws Exception {
+        configure("");
+        Authorizer.Rule admin = Authorizer.compile(annotation("admin"));
+        Authorizer.Rule user = Authorizer.compile(annotation("user"));
+        Map<String, Object> attributes = new HashMap<>();
+        Authorizer.grant(new FrameworkSession(session(attributes)), "admin", "user");
+        Object stored = attributes.get("role.mask");
+
+        long granted = Authorizer.grantedMask(new FrameworkSession(session(attributes)));
+        assertTrue(admin.allows(granted));
+        assertTrue(user.allows(granted));
+        assertEquals(stored, attributes.get("role.mask"));
+    }
+
+    private static void configure(String hierarchy) {
+        ProjectConfig config = new ProjectConfig();
+        config.setProperty("AUTH_NAME", "role");
+        config.setProperty("AUTH_HIERARCHY", hierarchy);
+        Authorizer.configure(config);
+    }
+
+    private static AuthAnnot annotation(String role) throws NoSuchMethodException {
+        return AuthorizerTest.class.getDeclaredMethod(role).getAnnotation(AuthAnnot.class);
+    }
+
+    private static HttpSession session(Map<String, Object> attributes) {
+        return (HttpSession) Proxy.newProxyInstance(AuthorizerTest.class.getClassLoader(), new Class<?>[] { HttpSession.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttribute":
+                            return attributes.get(args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove(args[0]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
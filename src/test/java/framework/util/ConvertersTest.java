@@ -0,0 +1,96 @@
+package framework.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+class ConvertersTest {
+
+    @Test
+    void integersRejectMalformedText() {
+        for (String value : new String[] { "", "+", "-", "12a", " 1", "1 ", "1.0", "1e3", "0x10", "١٢" }) {
+            assertNull(Converters.convert(value, Integer.class), value);
+            assertNull(Converters.convert(value, long.class), value);
+        }
+        assertEquals(-7, Converters.convert("-7", int.class));
+        assertEquals(7, Converters.convert("+7", Integer.class));
+        assertEquals(7, Converters.convert("007", Integer.class));
+    }
+
+    @Test
+    void integersRejectOverflow() {
+        assertEquals(Integer.MAX_VALUE, Converters.convert("2147483647", Integer.class));
+        assertEquals(Integer.MIN_VALUE, Converters.convert("-2147483648", Integer.class));
+        assertNull(Converters.convert("2147483648", Integer.class));
+        assertNull(Converters.convert("-2147483649", Integer.class));
+
+        assertEquals(Long.MIN_VALUE, Converters.convert("-9223372036854775808", Long.class));
+        assertNull(Converters.convert("9223372036854775808", Long.class));
+        assertNull(Converters.convert("99999999999999999999999", Long.class));
+
+        assertNull(Converters.convert("128", byte.class));
+        assertNull(Converters.convert("-32769", short.class));
+    }
+
+    @Test
+    void decimalsRejectMalformedText() {
+        for (String value : new String[] { "", ".", "-", "1.2.3", "1e", "1e+", "e5", "NaN", "Infinity", "0x1p3", "1,5", "1d", "1f" }) {
+            assertNull(Converters.convert(value, Double.class), value);
+            assertNull(Converters.convert(value, float.class), value);
+            assertNull(Converters.convert(value, BigDecimal.class), value);
+        }
+        assertEquals(1500.0, Converters.convert("1.5e3", double.class));
+        assertEquals(-0.5, Converters.convert("-.5", Double.class));
+        assertEquals(new BigDecimal("12.50"), Converters.convert("12.50", BigDecimal.class));
+    }
+
+    @Test
+    void bigDecimalRejectsHugeExponent() {
+        // Un exposant hors int ferait lever new BigDecimal(...)
+        assertNull(Converters.convert("1e9999999999", BigDecimal.class));
+        assertEquals(new BigDecimal("1e999999999"), Converters.convert("1e999999999", BigDecimal.class));
+    }
+
+    @Test
+    void bigIntegerAcceptsOnlyDigits() {
+        assertEquals(new BigInteger("-123456789012345678901234567890"),
+                Converters.convert("-123456789012345678901234567890", BigInteger.class));
+        assertNull(Converters.convert("12.0", BigInteger.class));
+        assertNull(Converters.convert("1e5", BigInteger.class));
+    }
+
+    @Test
+    void datesRejectMalformedOrImpossibleValues() {
+        for (String value : new String[] { "", "2024-1-1", "2024-01-01x", "2024/01/01", "2024-13-01", "2024-02-30", "2023-02-29", "24-01-01" }) {
+            assertNull(Converters.convert(value, LocalDate.class), value);
+        }
+        assertEquals(LocalDate.of(2024, 2, 29), Converters.convert("2024-02-29", LocalDate.class));
+    }
+
+    @Test
+    void dateTimesRejectMalformedValues() {
+        assertNull(Converters.convert("2024-01-01 10:00", LocalDateTime.class));
+        assertNull(Converters.convert("2024-01-01T25:00", LocalDateTime.class));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), Converters.convert("2024-01-01T10:00", LocalDateTime.class));
+
+        assertNull(Converters.convert("10:60", LocalTime.class));
+        assertNull(Converters.convert("2024-01-01T00:00:00", Instant.class));
+        assertEquals(Instant.EPOCH, Converters.convert("1970-01-01T00:00:00Z", Instant.class));
+    }
+
+    @Test
+    void booleansAcceptOnlyKnownWords() {
+        assertEquals(true, Converters.convert("on", boolean.class));
+        assertEquals(false, Converters.convert("FALSE", Boolean.class));
+        assertNull(Converters.convert("yes", Boolean.class));
+        assertNull(Converters.convert("1", boolean.class));
+    }
+}
@@ -0,0 +1,111 @@
+package framework.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+class ObjectMapperTest {
+
+    static class Line {
+        String name;
+        int quantity;
+    }
+
+    static class Node {
+        String label;
+        Node child;
+    }
+
+    static class Order {
+        List<Line> lines;
+        List<Line> extras;
+        Node tree;
+    }
+
+    // Profondeur 4, indice 9, 20 clés, 15 cases de listes
+    private static final ObjectMapper.Limits LIMITS = new ObjectMapper.Limits(4, 9, 20, 15);
+
+    @Test
+    void bindsWithinLimits() throws Exception {
+        Order order = map(Map.of(
+                "o.lines[1].name", "b",
+                "o.lines[9].quantity", "3",
+                "o.tree.child.label", "deep"));
+
+        assertEquals(10, order.lines.size());
+        assertEquals("b", order.lines.get(1).name);
+        assertEquals(3, order.lines.get(9).quantity);
+        assertEquals("deep", order.tree.child.label);
+    }
+
+    @Test
+    void depthLimitRejectsDeepKeys() throws Exception {
+        // tree.child.child.label : 4 niveaux, accepté ; un de plus, refusé
+        assertEquals("ok", map(Map.of("o.tree.child.child.label", "ok")).tree.child.child.label);
+
+        HttpStatusException e = assertThrows(HttpStatusException.class,
+                () -> map(Map.of("o.tree.child.child.child.label", "x")));
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, e.getStatus());
+        assertTrue(e.getMessage().startsWith("Champ trop profond"), e.getMessage());
+    }
+
+    @Test
+    void indexLimitRejectsLargeIndex() {
+        HttpStatusException e = assertThrows(HttpStatusException.class, () -> map(Map.of("o.lines[10].name", "x")));
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, e.getStatus());
+        assertTrue(e.getMessage().startsWith("Indice trop grand"), e.getMessage());
+    }
+
+    @Test
+    void slotLimitCountsHolesAcrossLists() throws Exception {
+        // 10 + 5 cases : exactement la limite
+        Map<String, String> params = new HashMap<>();
+        params.put("o.lines[9].name", "a");
+        params.put("o.extras[4].name", "b");
+        Order order = map(params);
+        assertEquals(10, order.lines.size());
+        assertEquals(5, order.extras.size());
+
+        // Une case de plus sur la seconde liste, alors que chaque indice reste permis
+        params.put("o.extras[5].name", "c");
+        HttpStatusException e = assertThrows(HttpStatusException.class, () -> map(params));
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, e.getStatus());
+        assertTrue(e.getMessage().startsWith("Listes trop grandes"), e.getMessage());
+    }
+
+    @Test
+    void keyLimitRejectsTooManyFields() {
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < 21; i++) {
+            params.put("o.unknown" + i, "x");
+        }
+        HttpStatusException e = assertThrows(HttpStatusException.class, () -> map(params));
+        assertTrue(e.getMessage().startsWith("Trop de champs"), e.getMessage());
+    }
+
+    @Test
+    void invalidScalarIsBadRequest() {
+        HttpStatusException e = assertThrows(HttpStatusException.class, () -> map(Map.of("o.lines[0].quantity", "douze")));
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void keysOutsidePrefixAreIgnored() throws Exception {
+        assertNull(map(Map.of("other.lines[0].name", "x", "o", "y", "order.tree.label", "z")));
+    }
+
+    private static Order map(Map<String, String> params) throws Exception {
+        Map<String, String[]> parameterMap = new HashMap<>();
+        params.forEach((key, value) -> parameterMap.put(key, new String[] { value }));
+        return (Order) ObjectMapper.mapToObject(parameterMap, Order.class, "o", LIMITS);
+    }
+}
@@ -0,0 +1,129 @@
+package framework.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapSessionStoreTest {
+
+    @Test
+    void sameSizeValueIsPatchedInPlace() {
+        ByteBuffer data = encode(Map.of("user", "alice", "role", "admin"), 0);
+
+        ByteBuffer patched = OffHeapSessionStore.patch(data, keys("user"), values("bruno"));
+
+        assertSame(data, patched);
+        assertEquals(Map.of("user", "bruno", "role", "admin"), decode(patched));
+    }
+
+    @Test
+    void removingAbsentKeyLeavesBufferUntouched() {
+        ByteBuffer data = encode(Map.of("user", "alice"), 0);
+
+        ByteBuffer patched = OffHeapSessionStore.patch(data, keys("missing"), new byte[][] { null });
+
+        assertSame(data, patched);
+        assertEquals(Map.of("user", "alice"), decode(patched));
+    }
+
+    @Test
+    void resizedValueIsCompactedInSameBuffer() {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("user", "alice");
+        attributes.put("cart", "3 articles");
+        attributes.put("lang", "fr");
+        ByteBuffer data = encode(attributes, 16);
+
+        // Valeur plus courte et suppression : la taille baisse mais reste au-dessus du quart
+        ByteBuffer patched = OffHeapSessionStore.patch(data, keys("cart", "lang"), new byte[][] { bytes("vide"), null });
+
+        assertSame(data, patched);
+        assertEquals(Map.of("user", "alice", "cart", "vide"), decode(patched));
+        assertEquals(4 + (2 + 4 + 4 + 5) + (2 + 4 + 4 + 4), patched.limit());
+    }
+
+    @Test
+    void growingValueMovesToNewBuffer() {
+        ByteBuffer data = encode(Map.of("user", "alice"), 0);
+
+        ByteBuffer patched = OffHeapSessionStore.patch(data, keys("user", "note"), values("alice", "une valeur plus longue"));
+
+        assertNotSame(data, patched);
+        assertEquals(Map.of("user", "alice", "note", "une valeur plus longue"), decode(patched));
+    }
+
+    @Test
+    void shrinkingFarBelowCapacityMovesToNewBuffer() {
+        ByteBuffer data = encode(Map.of("blob", "x".repeat(400)), 0);
+
+        ByteBuffer patched = OffHeapSessionStore.patch(data, keys("blob"), values("x"));
+
+        // Moins du quart de la capacité : on rend le gros tampon
+        assertNotSame(data, patched);
+        assertEquals(Map.of("blob", "x"), decode(patched));
+    }
+
+    @Test
+    void removingEverythingLeavesEmptySession() {
+        ByteBuffer data = encode(Map.of("user", "alice"), 0);
+
+        ByteBuffer patched = OffHeapSessionStore.patch(data, keys("user"), new byte[][] { null });
+
+        assertEquals(Map.of(), decode(patched));
+    }
+
+    // Même format que le magasin : nombre, puis (longueur de clé, clé, longueur de valeur, valeur)
+    private static ByteBuffer encode(Map<String, String> attributes, int slack) {
+        int size = 4;
+        for (Map.Entry<String, String> entry : attributes.entrySet()) {
+            size += 2 + bytes(entry.getKey()).length + 4 + bytes(entry.getValue()).length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size + slack);
+        buffer.putInt(attributes.size());
+        for (Map.Entry<String, String> entry : attributes.entrySet()) {
+            byte[] key = bytes(entry.getKey());
+            byte[] value = bytes(entry.getValue());
+            buffer.putShort((short) key.length).put(key).putInt(value.length).put(value);
+        }
+        return buffer.flip();
+    }
+
+    private static Map<String, String> decode(ByteBuffer data) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        int count = data.getInt(0);
+        int position = 4;
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[data.getShort(position) & 0xFFFF];
+            data.get(position + 2, key);
+            position += 2 + key.length;
+            byte[] value = new byte[data.getInt(position)];
+            data.get(position + 4, value);
+            position += 4 + value.length;
+            attributes.put(new String(key, StandardCharsets.UTF_8), new String(value, StandardCharsets.UTF_8));
+        }
+        return attributes;
+    }
+
+    private static byte[][] keys(String... names) {
+        return values(names);
+    }
+
+    private static byte[][] values(String... texts) {
+        byte[][] result = new byte[texts.length][];
+        for (int i = 0; i < texts.length; i++) {
+            result[i] = bytes(texts[i]);
+        }
+        return result;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+package framework.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import framework.models.Route;
+
+class RouterTest {
+
+    @Test
+    void staticSegmentWinsOverVariable() {
+        Router router = new Router();
+        Route byId = add(router, "GET", "/users/{id}");
+        Route me = add(router, "GET", "/users/me");
+
+        Map<String, String> variables = new HashMap<>();
+        assertSame(me, router.find("/users/me", "GET", variables));
+        assertTrue(variables.isEmpty());
+        assertSame(byId, router.find("/users/42", "GET", variables));
+        assertEquals(Map.of("id", "42"), variables);
+    }
+
+    @Test
+    void deadEndStaticBranchBacktracksToVariable() {
+        Router router = new Router();
+        add(router, "GET", "/a/b/c");
+        Route variable = add(router, "GET", "/a/{x}/d");
+
+        Map<String, String> variables = new HashMap<>();
+        // "b" existe en statique mais n'a pas d'enfant "d" : la variable prend le relais
+        assertSame(variable, router.find("/a/b/d", "GET", variables));
+        assertEquals(Map.of("x", "b"), variables);
+    }
+
+    @Test
+    void mixedSegmentBeforeVariable() {
+        Router router = new Router();
+        Route report = add(router, "GET", "/files/report-{year}.pdf");
+        Route any = add(router, "GET", "/files/{name}");
+
+        Map<String, String> variables = new HashMap<>();
+        assertSame(report, router.find("/files/report-2024.pdf", "GET", variables));
+        assertEquals(Map.of("year", "2024"), variables);
+
+        variables.clear();
+        assertSame(any, router.find("/files/notes.txt", "GET", variables));
+        assertEquals(Map.of("name", "notes.txt"), variables);
+    }
+
+    @Test
+    void deadEndMixedBranchLeavesNoVariables() {
+        Router router = new Router();
+        add(router, "GET", "/f/v-{id}/edit");
+        Route view = add(router, "GET", "/f/{any}/view");
+
+        Map<String, String> variables = new HashMap<>();
+        assertSame(view, router.find("/f/v-3/view", "GET", variables));
+        // Les variables du segment mixte abandonné ne sont pas écrites
+        assertEquals(Map.of("any", "v-3"), variables);
+    }
+
+    @Test
+    void failedMatchWritesNoVariables() {
+        Router router = new Router();
+        add(router, "GET", "/a/{x}/b");
+
+        Map<String, String> variables = new HashMap<>();
+        assertNull(router.find("/a/1/c", "GET", variables));
+        assertTrue(variables.isEmpty());
+    }
+
+    @Test
+    void variableNeverCapturesEmptySegment() {
+        Router router = new Router();
+        add(router, "GET", "/users/{id}");
+
+        assertNull(router.find("/users/", "GET", new HashMap<>()));
+        assertEquals(0, router.allowedMethods("/users/"));
+    }
+
+    @Test
+    void methodBitmaskSelectsRoute() {
+        Router router = new Router();
+        Route list = add(router, "GET", "/items");
+        Route create = add(router, "POST", "/items");
+
+        assertSame(list, router.find("/items", "GET", new HashMap<>()));
+        assertSame(create, router.find("/items", HttpMethods.POST, new HashMap<>()));
+        assertNull(router.find("/items", "PUT", new HashMap<>()));
+        // Méthode jamais enregistrée : identifiant négatif, aucune route
+        assertNull(router.find("/items", "BREW", new HashMap<>()));
+    }
+
+    @Test
+    void allowedMethodsGiveAllowHeaderFor405() {
+        Router router = new Router();
+        add(router, "GET", "/items");
+        add(router, "POST", "/items");
+        add(router, "DELETE", "/items/{id}");
+        add(router, "PUT", "/items/special");
+
+        long allowed = router.allowedMethods("/items");
+        assertEquals((1L << HttpMethods.GET) | (1L << HttpMethods.POST), allowed);
+        assertEquals("GET, POST", HttpMethods.allow(allowed));
+
+        // Le masque réunit toutes les routes qui correspondent, statiques et variables
+        assertEquals((1L << HttpMethods.PUT) | (1L << HttpMethods.DELETE), router.allowedMethods("/items/special"));
+        assertEquals(1L << HttpMethods.DELETE, router.allowedMethods("/items/7"));
+
+        // Chemin inconnu : 0, donc 404 et non 405
+        assertEquals(0, router.allowedMethods("/nothing"));
+    }
+
+    @Test
+    void duplicateRouteKeepsFirst() {
+        Router router = new Router();
+        Route first = add(router, "GET", "/dup");
+        add(router, "GET", "/dup");
+
+        assertSame(first, router.find("/dup", "GET", new HashMap<>()));
+        assertEquals(1, router.size());
+    }
+
+    private static Route add(Router router, String httpMethod, String url) {
+        Route route = new Route(RouterTest.class, null, httpMethod, url);
+        router.add(route);
+        return route;
+    }
+}